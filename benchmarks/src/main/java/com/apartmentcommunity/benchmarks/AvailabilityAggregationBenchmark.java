@@ -0,0 +1,91 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.SlotCodec;
+import com.apartmentcommunity.booking.service.AmenityRules;
+import com.apartmentcommunity.booking.service.AvailabilityView;
+import com.apartmentcommunity.booking.service.SlotOccupancyIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The availability response for one amenity and day, built by the same
+ * AvailabilityView the booking controller uses. "fromBookings" counts N bookings into the
+ * occupancy array first (what a date outside the occupancy window costs, minus the
+ * query); "fromIndex" starts from the in-memory index snapshot like dates inside it.
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:exec@jmh -Djmh.include=AvailabilityAggregation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityAggregationBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int bookings;
+
+    private final List<Booking> dayBookings = new ArrayList<>();
+    private final AtomicIntegerArray indexCounts = new AtomicIntegerArray(SlotOccupancyIndex.BUCKETS_PER_DAY + 1);
+    private AmenityRules rules;
+    private String date;
+
+    @Setup
+    public void setUp() {
+        rules = new AmenityRules(1L, AmenityType.GYM, false, 60, LocalTime.of(6, 0), LocalTime.of(22, 0),
+                bookings / 8, 0);
+        LocalDate date = LocalDate.now().plusDays(1);
+        this.date = date.toString();
+        Random random = new Random(42);
+        for (int i = 0; i < bookings; i++) {
+            int hour = 6 + random.nextInt(16);
+            String timeSlot = SlotCodec.format(hour * 60, (hour + 1) * 60);
+            dayBookings.add(new Booking(1L, (long) i, AmenityType.GYM, date, timeSlot,
+                    date.atTime(hour, 0), date.atTime(hour + 1, 0)));
+            indexCounts.incrementAndGet(SlotCodec.ordinal(timeSlot));
+            indexCounts.incrementAndGet(SlotOccupancyIndex.DAY_TOTAL);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> fromBookings() {
+        int[] occupancy = new int[SlotOccupancyIndex.BUCKETS_PER_DAY + 1];
+        for (Booking booking : dayBookings) {
+            Short ordinal = booking.getSlotOrdinal();
+            if (ordinal != null) {
+                occupancy[ordinal]++;
+            }
+            occupancy[SlotOccupancyIndex.DAY_TOTAL]++;
+        }
+        return AvailabilityView.build(rules, 1L, date, occupancy);
+    }
+
+    @Benchmark
+    public Map<String, Object> fromIndex() {
+        int[] occupancy = new int[SlotOccupancyIndex.BUCKETS_PER_DAY + 1];
+        for (int i = 0; i < occupancy.length; i++) {
+            occupancy[i] = indexCounts.get(i);
+        }
+        return AvailabilityView.build(rules, 1L, date, occupancy);
+    }
+}
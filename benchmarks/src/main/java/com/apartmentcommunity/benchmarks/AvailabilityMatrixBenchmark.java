@@ -0,0 +1,89 @@
+package com.apartmentcommunity.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Compares fetching a week of availability for several amenities one day at a time
+ * (what the UI does today) with a single /api/availability/matrix request.
+ * Reports requests, response bytes and latency per browse for both approaches.
+ *
+ * Run against a local booking-service:
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:java
+ *     -Dbenchmark.mainClass=com.apartmentcommunity.benchmarks.AvailabilityMatrixBenchmark
+ */
+public class AvailabilityMatrixBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("booking.url", "http://localhost:8082");
+        List<Long> amenityIds = Arrays.stream(System.getProperty("amenityIds", "1,2,3,4,5,6").split(","))
+                .map(String::trim)
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+        int days = Integer.getInteger("days", 7);
+        int iterations = Integer.getInteger("iterations", 50);
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(days - 1);
+
+        HttpClient client = HttpClient.newHttpClient();
+
+        // Warm up both paths before measuring
+        for (int i = 0; i < 5; i++) {
+            perDay(client, baseUrl, amenityIds, from, days);
+            matrix(client, baseUrl, amenityIds, from, to);
+        }
+
+        long perDayBytes = 0;
+        long perDayNanos = 0;
+        long matrixBytes = 0;
+        long matrixNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long started = System.nanoTime();
+            perDayBytes += perDay(client, baseUrl, amenityIds, from, days);
+            perDayNanos += System.nanoTime() - started;
+
+            started = System.nanoTime();
+            matrixBytes += matrix(client, baseUrl, amenityIds, from, to);
+            matrixNanos += System.nanoTime() - started;
+        }
+
+        System.out.printf("amenities=%d days=%d iterations=%d%n", amenityIds.size(), days, iterations);
+        System.out.printf("per-day : requests=%d bytes=%d latency=%.2f ms%n",
+                amenityIds.size() * days, perDayBytes / iterations, perDayNanos / 1e6 / iterations);
+        System.out.printf("matrix  : requests=1 bytes=%d latency=%.2f ms%n",
+                matrixBytes / iterations, matrixNanos / 1e6 / iterations);
+    }
+
+    private static long perDay(HttpClient client, String baseUrl, List<Long> amenityIds, LocalDate from, int days)
+            throws Exception {
+        long bytes = 0;
+        for (Long amenityId : amenityIds) {
+            for (int day = 0; day < days; day++) {
+                bytes += get(client, baseUrl + "/api/availability?amenityId=" + amenityId
+                        + "&date=" + from.plusDays(day));
+            }
+        }
+        return bytes;
+    }
+
+    private static long matrix(HttpClient client, String baseUrl, List<Long> amenityIds, LocalDate from,
+                               LocalDate to) throws Exception {
+        String ids = amenityIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return get(client, baseUrl + "/api/availability/matrix?from=" + from + "&to=" + to + "&amenityIds=" + ids);
+    }
+
+    private static long get(HttpClient client, String url) throws Exception {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
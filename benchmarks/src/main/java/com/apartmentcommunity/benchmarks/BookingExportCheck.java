@@ -0,0 +1,137 @@
+package com.apartmentcommunity.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeds a large number of bookings, downloads /api/admin/bookings/export and checks that
+ * every row arrives. Start booking-service with a small heap (e.g. -Xmx128m) for the run:
+ * a buffered export of a million rows fails with OutOfMemoryError there, a streamed one does not.
+ * Seeded rows use a negative amenity id and are deleted afterwards.
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:java
+ *     -Dbenchmark.mainClass=com.apartmentcommunity.benchmarks.BookingExportCheck
+ *     -Drows=1000000 -Dtoken=<admin session token>
+ */
+public class BookingExportCheck {
+    private static final String INSERT_SQL = "INSERT INTO bookings (amenity_id, user_id, amenity_type, " +
+            "booking_date, time_slot, slot_start, slot_end, created_at) VALUES (?, ?, 'GYM', ?, ?, ?, ?, ?)";
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("jdbc.url", "jdbc:postgresql://localhost:5434/booking_db");
+        String user = System.getProperty("jdbc.user", "postgres");
+        String password = System.getProperty("jdbc.password", "postgres");
+        String baseUrl = System.getProperty("booking.url", "http://localhost:8082");
+        String token = System.getProperty("token");
+        String format = System.getProperty("format", "ndjson");
+        int rows = Integer.getInteger("rows", 1_000_000);
+        if (token == null) {
+            throw new IllegalArgumentException("-Dtoken=<admin session token> is required");
+        }
+
+        long amenityId = -ThreadLocalRandom.current().nextLong(1, Integer.MAX_VALUE);
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            long seedStarted = System.nanoTime();
+            seed(connection, amenityId, rows);
+            System.out.printf("seeded %d rows in %.1f s%n", rows, (System.nanoTime() - seedStarted) / 1e9);
+
+            long expected = count(connection);
+            try {
+                long started = System.nanoTime();
+                long[] received = download(baseUrl, token, format);
+                double seconds = (System.nanoTime() - started) / 1e9;
+                long dataRows = "csv".equals(format) ? received[0] - 1 : received[0];
+
+                System.out.printf("format=%s rows=%d bytes=%d time=%.1f s (%.0f rows/s)%n",
+                        format, dataRows, received[1], seconds, dataRows / seconds);
+                if (dataRows != expected) {
+                    throw new IllegalStateException("Expected " + expected + " rows but received " + dataRows);
+                }
+                System.out.println("OK: export is complete");
+            } finally {
+                try (PreparedStatement delete = connection.prepareStatement(
+                        "DELETE FROM bookings WHERE amenity_id = ?")) {
+                    delete.setLong(1, amenityId);
+                    delete.executeUpdate();
+                }
+                connection.commit();
+            }
+        }
+    }
+
+    private static void seed(Connection connection, long amenityId, int rows) throws Exception {
+        LocalDate firstDay = LocalDate.now().minusYears(3);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < rows; i++) {
+                LocalDate day = firstDay.plusDays(i % 1000);
+                int hour = 9 + (i / 1000) % 8;
+                LocalDateTime slotStart = day.atTime(hour, 0);
+                insert.setLong(1, amenityId);
+                insert.setLong(2, 1 + i % 200);
+                insert.setDate(3, Date.valueOf(day));
+                insert.setString(4, String.format("%02d:00-%02d:00", hour, hour + 1));
+                insert.setTimestamp(5, Timestamp.valueOf(slotStart));
+                insert.setTimestamp(6, Timestamp.valueOf(slotStart.plusHours(1)));
+                insert.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+                insert.addBatch();
+                if ((i + 1) % 5000 == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static long count(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM bookings")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    // Returns {lines, bytes}, reading the body incrementally so the client stays small too
+    private static long[] download(String baseUrl, String token, String format) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/admin/bookings/export?format=" + format))
+                .header("X-SESSION-TOKEN", token)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Export returned " + response.statusCode());
+        }
+
+        long lines = 0;
+        long bytes = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                bytes += line.length() + 1;
+            }
+        }
+        return new long[] {lines, bytes};
+    }
+}
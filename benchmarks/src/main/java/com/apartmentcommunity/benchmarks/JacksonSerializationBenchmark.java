@@ -0,0 +1,79 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.apartmentcommunity.booking.dto.BookingResponse;
+import com.apartmentcommunity.booking.model.AmenityType;
+import com.apartmentcommunity.booking.model.Booking;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of booking lists as returned by the booking endpoints, with an
+ * ObjectMapper configured like Spring Boot's (java.time module, ISO dates).
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:exec@jmh -Djmh.include=JacksonSerialization
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private final List<Booking> bookings = new ArrayList<>();
+    private final List<BookingResponse> responses = new ArrayList<>();
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDate date = LocalDate.now().plusDays(1);
+        for (int i = 0; i < size; i++) {
+            int hour = 9 + i % 8;
+            LocalDateTime start = date.atTime(hour, 0);
+            Booking booking = new Booking((long) (1 + i % 6), (long) i, AmenityType.GYM, date,
+                    String.format("%02d:00-%02d:00", hour, hour + 1), start, start.plusHours(1));
+            booking.setId((long) i);
+            booking.setCreatedAt(LocalDateTime.now());
+            bookings.add(booking);
+            responses.add(new BookingResponse(booking.getId(), booking.getAmenityId(), booking.getUserId(),
+                    "user" + i, "Resident " + i, "A-" + (100 + i % 400), "555-" + (1000 + i),
+                    booking.getSlotStart(), booking.getSlotEnd(), booking.getCreatedAt()));
+        }
+    }
+
+    @Benchmark
+    public byte[] bookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] bookingResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,80 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (see {@link JmhSuite}) benchmark by benchmark and
+ * exits with status 1 if any score got worse by more than the threshold. Scores are
+ * treated as "lower is better" for time-per-operation modes and "higher is better" for
+ * throughput.
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:java
+ *     -Dbenchmark.mainClass=com.apartmentcommunity.benchmarks.JmhResultDiff
+ *     -Dexec.args="target/jmh/jmh-1.0.0.json target/jmh/jmh-1.1.0.json" -Dthreshold=10
+ */
+public class JmhResultDiff {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("usage: JmhResultDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(System.getProperty("threshold", "10"));
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s  %s%n", entry.getKey(), "-", afterScore, "new", unit);
+                continue;
+            }
+
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) / beforeScore * 100;
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), beforeScore, afterScore,
+                    change, unit, regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-80s %14s%n", missing, "removed");
+            }
+        }
+
+        System.out.printf("%d regression(s) above %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Keyed by benchmark name, mode and parameters
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText()).append(']');
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,37 @@
+package com.apartmentcommunity.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the JMH suites and writes the results as JSON, one file per version, so two
+ * releases can be compared with {@link JmhResultDiff}. The GC profiler adds allocation
+ * per operation (gc.alloc.rate.norm) to every benchmark.
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:exec@jmh [-Djmh.include=Jackson]
+ */
+public class JmhSuite {
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("jmh.include", ".*");
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh/jmh-results.json"));
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("results: " + result.toAbsolutePath());
+    }
+}
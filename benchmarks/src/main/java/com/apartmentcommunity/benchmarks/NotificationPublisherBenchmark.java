@@ -0,0 +1,79 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.OutboxEvent;
+import com.apartmentcommunity.booking.repository.OutboxEventRepository;
+import com.apartmentcommunity.booking.service.NotificationPublisher;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a booking event and its outbox row in NotificationPublisher: the event map,
+ * its JSON payload and the OutboxEvent. The repository is an in-memory stand-in that
+ * keeps the last saved row, so the database insert is not part of the measurement.
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:exec@jmh -Djmh.include=NotificationPublisherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationPublisherBenchmark {
+    private NotificationPublisher publisher;
+    private Booking booking;
+    private OutboxEvent lastSaved;
+
+    @Setup
+    public void setUp() {
+        OutboxEventRepository repository = (OutboxEventRepository) Proxy.newProxyInstance(
+                OutboxEventRepository.class.getClassLoader(), new Class<?>[] {OutboxEventRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        lastSaved = (OutboxEvent) args[0];
+                        return lastSaved;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        publisher = new NotificationPublisher(repository, JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build(), Tracer.NOOP, Propagator.NOOP);
+
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalDateTime start = date.atTime(10, 0);
+        booking = new Booking(3L, 42L, AmenityType.TENNIS, date, "10:00-11:00", start, start.plusHours(1));
+        booking.setId(1234L);
+    }
+
+    @Benchmark
+    public OutboxEvent bookingCreated() {
+        publisher.publishBookingCreated(booking);
+        return lastSaved;
+    }
+
+    @Benchmark
+    public OutboxEvent bookingCancelled() {
+        publisher.publishBookingCancelled(booking);
+        return lastSaved;
+    }
+}
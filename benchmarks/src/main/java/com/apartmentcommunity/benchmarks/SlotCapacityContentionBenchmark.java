@@ -0,0 +1,240 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.apartmentcommunity.booking.repository.SlotCapacityRepository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hammers a handful of slots from many threads with reserve/release traffic against a real
+ * Postgres and checks that no slot ever ends up above capacity.
+ *
+ * mode=atomic (default) runs the exact statements from {@link SlotCapacityRepository};
+ * mode=naive runs the old count-then-insert sequence for comparison.
+ *
+ * Run against the docker-compose database:
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:java -Dthreads=200 -DdurationSeconds=10
+ */
+public class SlotCapacityContentionBenchmark {
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+    private static final String NAIVE_COUNT_SQL = "SELECT booked_count FROM slot_capacity " +
+            "WHERE amenity_id = ? AND booking_date = ? AND time_slot = ?";
+    private static final String NAIVE_INCREMENT_SQL = "INSERT INTO slot_capacity AS sc " +
+            "(amenity_id, booking_date, time_slot, amenity_type, booked_count) VALUES (?, ?, ?, 'GYM', 1) " +
+            "ON CONFLICT (amenity_id, booking_date, time_slot) DO UPDATE SET booked_count = sc.booked_count + 1";
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("jdbc.url", "jdbc:postgresql://localhost:5434/booking_db");
+        String user = System.getProperty("jdbc.user", "postgres");
+        String password = System.getProperty("jdbc.password", "postgres");
+        int threads = Integer.getInteger("threads", 200);
+        int durationSeconds = Integer.getInteger("durationSeconds", 10);
+        int slots = Integer.getInteger("slots", 4);
+        int capacity = Integer.getInteger("capacity", 10);
+        double cancelRatio = Double.parseDouble(System.getProperty("cancelRatio", "0.3"));
+        boolean naive = "naive".equals(System.getProperty("mode", "atomic"));
+
+        // A negative amenity id never collides with real data
+        long amenityId = -ThreadLocalRandom.current().nextLong(1, Integer.MAX_VALUE);
+        LocalDate bookingDate = LocalDate.now().plusDays(1);
+
+        LongAdder reserved = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder released = new LongAdder();
+        LongAdder errors = new LongAdder();
+        AtomicIntegerArray held = new AtomicIntegerArray(slots);
+
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try (Connection connection = DriverManager.getConnection(url, user, password)) {
+                    connection.setAutoCommit(false);
+                    Statements statements = new Statements(connection);
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int[] mine = new int[slots];
+                    while (System.nanoTime() < deadline) {
+                        int slot = random.nextInt(slots);
+                        String timeSlot = timeSlot(slot);
+                        try {
+                            if (mine[slot] > 0 && random.nextDouble() < cancelRatio) {
+                                statements.release(amenityId, bookingDate, timeSlot);
+                                connection.commit();
+                                mine[slot]--;
+                                held.decrementAndGet(slot);
+                                released.increment();
+                            } else if (naive ? statements.reserveNaive(amenityId, bookingDate, timeSlot, capacity)
+                                    : statements.reserve(amenityId, bookingDate, timeSlot, capacity)) {
+                                connection.commit();
+                                mine[slot]++;
+                                held.incrementAndGet(slot);
+                                reserved.increment();
+                            } else {
+                                connection.commit();
+                                rejected.increment();
+                            }
+                        } catch (SQLException e) {
+                            connection.rollback();
+                            errors.increment();
+                        }
+                    }
+                } catch (Exception e) {
+                    errors.increment();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        int overbooked = 0;
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            System.out.printf("mode=%s threads=%d slots=%d capacity=%d duration=%.1fs%n",
+                    naive ? "naive" : "atomic", threads, slots, capacity, elapsedSeconds);
+            for (int slot = 0; slot < slots; slot++) {
+                int booked = bookedCount(connection, amenityId, bookingDate, timeSlot(slot));
+                boolean over = booked > capacity;
+                if (over) {
+                    overbooked++;
+                }
+                System.out.printf("  slot %s: booked=%d expected=%d%s%n",
+                        timeSlot(slot), booked, held.get(slot), over ? "  OVERBOOKED" : "");
+            }
+            try (PreparedStatement cleanup = connection.prepareStatement(
+                    "DELETE FROM slot_capacity WHERE amenity_id = ?")) {
+                cleanup.setLong(1, amenityId);
+                cleanup.executeUpdate();
+            }
+        }
+
+        long operations = reserved.sum() + rejected.sum() + released.sum();
+        System.out.printf("reserved=%d rejected=%d released=%d errors=%d%n",
+                reserved.sum(), rejected.sum(), released.sum(), errors.sum());
+        System.out.printf("throughput=%.0f ops/s overbookedSlots=%d%n", operations / elapsedSeconds, overbooked);
+        if (overbooked > 0 && !naive) {
+            System.exit(1);
+        }
+    }
+
+    private static String timeSlot(int slot) {
+        return String.format("%02d:00-%02d:00", 9 + slot, 10 + slot);
+    }
+
+    private static int bookedCount(Connection connection, long amenityId, LocalDate bookingDate, String timeSlot)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(NAIVE_COUNT_SQL)) {
+            statement.setLong(1, amenityId);
+            statement.setDate(2, Date.valueOf(bookingDate));
+            statement.setString(3, timeSlot);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Rewrites a Spring Data native query with named parameters into positional JDBC form.
+     */
+    static NamedSql toJdbc(String sql) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder jdbc = new StringBuilder();
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+            matcher.appendReplacement(jdbc, "?");
+        }
+        matcher.appendTail(jdbc);
+        return new NamedSql(jdbc.toString(), names);
+    }
+
+    static final class NamedSql {
+        final String sql;
+        final List<String> names;
+
+        NamedSql(String sql, List<String> names) {
+            this.sql = sql;
+            this.names = names;
+        }
+    }
+
+    private static final class Statements {
+        private final NamedSql reserveSql = toJdbc(SlotCapacityRepository.RESERVE_SQL);
+        private final NamedSql releaseSql = toJdbc(SlotCapacityRepository.RELEASE_SQL);
+        private final PreparedStatement reserve;
+        private final PreparedStatement release;
+        private final PreparedStatement naiveCount;
+        private final PreparedStatement naiveIncrement;
+
+        Statements(Connection connection) throws SQLException {
+            this.reserve = connection.prepareStatement(reserveSql.sql);
+            this.release = connection.prepareStatement(releaseSql.sql);
+            this.naiveCount = connection.prepareStatement(NAIVE_COUNT_SQL);
+            this.naiveIncrement = connection.prepareStatement(NAIVE_INCREMENT_SQL);
+        }
+
+        boolean reserve(long amenityId, LocalDate bookingDate, String timeSlot, int capacity) throws SQLException {
+            bind(reserve, reserveSql, amenityId, bookingDate, timeSlot, capacity);
+            return reserve.executeUpdate() == 1;
+        }
+
+        void release(long amenityId, LocalDate bookingDate, String timeSlot) throws SQLException {
+            bind(release, releaseSql, amenityId, bookingDate, timeSlot, 0);
+            release.executeUpdate();
+        }
+
+        boolean reserveNaive(long amenityId, LocalDate bookingDate, String timeSlot, int capacity)
+                throws SQLException {
+            naiveCount.setLong(1, amenityId);
+            naiveCount.setDate(2, Date.valueOf(bookingDate));
+            naiveCount.setString(3, timeSlot);
+            int booked;
+            try (ResultSet rs = naiveCount.executeQuery()) {
+                booked = rs.next() ? rs.getInt(1) : 0;
+            }
+            if (booked >= capacity) {
+                return false;
+            }
+            naiveIncrement.setLong(1, amenityId);
+            naiveIncrement.setDate(2, Date.valueOf(bookingDate));
+            naiveIncrement.setString(3, timeSlot);
+            naiveIncrement.executeUpdate();
+            return true;
+        }
+
+        private static void bind(PreparedStatement statement, NamedSql namedSql, long amenityId,
+                                 LocalDate bookingDate, String timeSlot, int capacity) throws SQLException {
+            for (int i = 0; i < namedSql.names.size(); i++) {
+                switch (namedSql.names.get(i)) {
+                    case "amenityId" -> statement.setLong(i + 1, amenityId);
+                    case "bookingDate" -> statement.setDate(i + 1, Date.valueOf(bookingDate));
+                    case "timeSlot" -> statement.setString(i + 1, timeSlot);
+                    case "amenityType" -> statement.setString(i + 1, "GYM");
+                    case "capacity" -> statement.setInt(i + 1, capacity);
+                    default -> throw new IllegalStateException("Unexpected parameter " + namedSql.names.get(i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+import com.apartmentcommunity.booking.model.SlotCodec;
+import com.apartmentcommunity.booking.service.AmenityRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Time slot validation and availability computation: the regex / LocalTime path that
+ * BookingService used before slot ordinals ("legacy*") against SlotCodec and the
+ * ordinal-indexed occupancy arrays ("codec*"). JmhSuite reports allocation per operation.
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:exec@jmh -Djmh.include=SlotCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotCodecBenchmark {
+    private static final Pattern TIME_SLOT_PATTERN =
+            Pattern.compile("^([01]\\d|2[0-3]):[0-5]\\d-([01]\\d|2[0-3]):[0-5]\\d$");
+    private static final LocalTime OPENING_TIME = LocalTime.of(9, 0);
+    private static final LocalTime CLOSING_TIME = LocalTime.of(17, 0);
+    private static final int SLOTS = 1024;
+
+    private final String[] timeSlots = new String[SLOTS];
+    private final int[] occupancy = new int[SlotCodec.ORDINALS_PER_DAY + 1];
+    private AmenityRules rules;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SLOTS; i++) {
+            int hour = 7 + random.nextInt(12);
+            timeSlots[i] = String.format("%02d:00-%02d:00", hour, hour + 1);
+        }
+        for (int i = 0; i < occupancy.length; i++) {
+            occupancy[i] = random.nextInt(12);
+        }
+        rules = new AmenityRules(1L, AmenityType.GYM, false, 60, OPENING_TIME, CLOSING_TIME, 10, 0);
+    }
+
+    @Benchmark
+    public boolean legacyValidate() {
+        String timeSlot = nextSlot();
+        if (!TIME_SLOT_PATTERN.matcher(timeSlot).matches()) {
+            return false;
+        }
+        LocalTime start = LocalTime.parse(timeSlot.substring(0, 5));
+        LocalTime end = LocalTime.parse(timeSlot.substring(6, 11));
+        return legacySlots().contains(start) && end.equals(start.plusMinutes(60));
+    }
+
+    @Benchmark
+    public boolean codecValidate() {
+        String timeSlot = nextSlot();
+        int start = SlotCodec.startMinute(timeSlot);
+        int end = SlotCodec.endMinute(timeSlot);
+        return start != SlotCodec.INVALID && end != SlotCodec.INVALID
+                && rules.slotIndexOf(start) >= 0 && end == start + rules.getSlotMinutes();
+    }
+
+    @Benchmark
+    public void legacyAvailability(Blackhole blackhole) {
+        List<String> available = new ArrayList<>();
+        for (LocalTime slot : legacySlots()) {
+            int bucket = (slot.getHour() * 60 + slot.getMinute()) / SlotCodec.MINUTES_PER_ORDINAL;
+            if (occupancy[bucket] < 10) {
+                available.add(slot.toString());
+            }
+        }
+        blackhole.consume(available);
+    }
+
+    @Benchmark
+    public void codecAvailability(Blackhole blackhole) {
+        blackhole.consume(rules.availableSlots(occupancy));
+    }
+
+    private String nextSlot() {
+        next = (next + 1) & (SLOTS - 1);
+        return timeSlots[next];
+    }
+
+    private static List<LocalTime> legacySlots() {
+        List<LocalTime> slots = new ArrayList<>();
+        for (LocalTime slot = OPENING_TIME; slot.isBefore(CLOSING_TIME); slot = slot.plusHours(1)) {
+            slots.add(slot);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,168 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.apartmentcommunity.booking.service.SessionCache;
+import com.apartmentcommunity.booking.service.SessionRevocations;
+import com.apartmentcommunity.booking.service.SessionTokenVerifier;
+import com.apartmentcommunity.booking.service.UserServiceClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserServiceClient turning user-service responses into UserInfo objects: message
+ * conversion to maps and the map-to-object mapping, including the bulkhead and circuit
+ * breaker decoration. Responses are served from memory, so no network is involved.
+ *
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:exec@jmh -Djmh.include=UserServiceClientBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceClientBenchmark {
+    @Param({"1", "50", "500"})
+    private int users;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private UserServiceClient client;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (long id = 1; id <= users; id++) {
+            userIds.add(id);
+            batch.add(user(id));
+        }
+        byte[] batchBody = objectMapper.writeValueAsBytes(batch);
+        byte[] singleBody = objectMapper.writeValueAsBytes(user(1L));
+
+        ClientHttpRequestFactory requestFactory = (uri, method) ->
+                new CannedRequest(uri, method, uri.getPath().endsWith("/batch") ? batchBody : singleBody);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new UserServiceClient("http://user-service", 500,
+                new SessionCache(30, 5, 10000, meterRegistry),
+                new SessionTokenVerifier("benchmark-session-token-secret-0123456789", objectMapper,
+                        new SessionRevocations(meterRegistry)),
+                new RestTemplate(requestFactory),
+                CircuitBreaker.ofDefaults("user-service"),
+                Bulkhead.ofDefaults("user-service"),
+                meterRegistry);
+    }
+
+    @Benchmark
+    public Map<Long, UserServiceClient.UserInfo> getUserInfos() {
+        return client.getUserInfos(userIds);
+    }
+
+    @Benchmark
+    public Optional<UserServiceClient.UserInfo> getUserInfo() {
+        return client.getUserInfo(1L);
+    }
+
+    private static Map<String, Object> user(long id) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", id);
+        user.put("username", "user" + id);
+        user.put("name", "Resident " + id);
+        user.put("flatNo", "A-" + (100 + id % 400));
+        user.put("contactNumber", "555-" + (1000 + id));
+        user.put("role", "USER");
+        return user;
+    }
+
+    private static final class CannedRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final byte[] responseBody;
+        private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+
+        private CannedRequest(URI uri, HttpMethod method, byte[] responseBody) {
+            this.uri = uri;
+            this.method = method;
+            this.responseBody = responseBody;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return requestBody;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) {
+            return new ClientHttpResponse() {
+                @Override
+                public HttpStatusCode getStatusCode() {
+                    return HttpStatus.OK;
+                }
+
+                @Override
+                public String getStatusText() {
+                    return "OK";
+                }
+
+                @Override
+                public void close() {
+                }
+
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(responseBody);
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    responseHeaders.setContentType(MediaType.APPLICATION_JSON);
+                    responseHeaders.setContentLength(responseBody.length);
+                    return responseHeaders;
+                }
+            };
+        }
+    }
+}
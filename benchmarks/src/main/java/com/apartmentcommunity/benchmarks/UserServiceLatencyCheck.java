@@ -0,0 +1,156 @@
+package com.apartmentcommunity.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Starts a stub user-service that answers every call after an injected delay, drives
+ * session-authenticated traffic at booking-service through it and meanwhile measures
+ * /api/availability, which does not depend on user-service. With pooled, time-bounded
+ * calls behind a bulkhead and circuit breaker the availability latency stays flat and
+ * authenticated calls fail fast instead of piling up on Tomcat threads.
+ *
+ * Start booking-service with USER_SERVICE_URL=http://localhost:18085, then:
+ * mvn -Pbenchmarks -pl benchmarks -am compile exec:java
+ *     -Dbenchmark.mainClass=com.apartmentcommunity.benchmarks.UserServiceLatencyCheck
+ *     -DdelayMs=5000 -Dclients=300
+ */
+public class UserServiceLatencyCheck {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("booking.url", "http://localhost:8082");
+        int stubPort = Integer.getInteger("stubPort", 18085);
+        long delayMs = Long.getLong("delayMs", 5000);
+        int clients = Integer.getInteger("clients", 300);
+        int durationSeconds = Integer.getInteger("durationSeconds", 30);
+        long maxP99Ms = Long.getLong("maxP99Ms", 500);
+        long amenityId = Long.getLong("amenityId", 1);
+
+        HttpServer stub = startStub(stubPort, delayMs);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newCachedThreadPool())
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        try {
+            long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+            ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+            LongAdder authenticatedNanos = new LongAdder();
+
+            // Authenticated traffic; fresh tokens so the session cache never answers
+            for (int i = 0; i < clients; i++) {
+                pool.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long started = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings"))
+                                            .header("X-SESSION-TOKEN", UUID.randomUUID().toString())
+                                            .timeout(Duration.ofSeconds(30))
+                                            .GET().build(),
+                                    HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        authenticatedNanos.add(System.nanoTime() - started);
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                    return null;
+                });
+            }
+
+            // Probe an endpoint that does not need user-service
+            List<Long> probeMillis = new ArrayList<>();
+            int probeFailures = 0;
+            String probeUrl = baseUrl + "/api/availability?amenityId=" + amenityId + "&date=" + LocalDate.now();
+            while (System.nanoTime() < deadline) {
+                long started = System.nanoTime();
+                try {
+                    int status = client.send(HttpRequest.newBuilder(URI.create(probeUrl))
+                                    .timeout(Duration.ofSeconds(10)).GET().build(),
+                            HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status != 200) {
+                        probeFailures++;
+                    }
+                } catch (Exception e) {
+                    probeFailures++;
+                }
+                probeMillis.add((System.nanoTime() - started) / 1_000_000);
+                Thread.sleep(50);
+            }
+
+            pool.shutdown();
+            Collections.sort(probeMillis);
+            long p50 = percentile(probeMillis, 0.50);
+            long p99 = percentile(probeMillis, 0.99);
+            long authenticated = statuses.values().stream().mapToLong(LongAdder::sum).sum();
+
+            System.out.printf("stub delay=%d ms, clients=%d, duration=%d s%n", delayMs, clients, durationSeconds);
+            System.out.printf("authenticated calls=%d mean=%.0f ms statuses=%s%n", authenticated,
+                    authenticated > 0 ? authenticatedNanos.sum() / 1e6 / authenticated : 0.0, statuses);
+            System.out.printf("availability probes=%d failures=%d p50=%d ms p99=%d ms%n",
+                    probeMillis.size(), probeFailures, p50, p99);
+            if (probeFailures > 0 || p99 > maxP99Ms) {
+                throw new IllegalStateException("booking-service was not responsive (p99 " + p99
+                        + " ms, limit " + maxP99Ms + " ms, failures " + probeFailures + ")");
+            }
+            System.out.println("OK: booking-service stayed responsive");
+        } finally {
+            pool.shutdownNow();
+            stub.stop(0);
+        }
+    }
+
+    private static HttpServer startStub(int port, long delayMs) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 512);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/session/", exchange -> respond(exchange, delayMs,
+                "{\"userId\":1,\"username\":\"stub\",\"role\":\"USER\"}"));
+        server.createContext("/api/users/batch", exchange -> respond(exchange, delayMs, "[]"));
+        server.createContext("/api/users/", exchange -> respond(exchange, delayMs,
+                "{\"id\":1,\"username\":\"stub\",\"name\":\"Stub User\",\"role\":\"USER\"}"));
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, long delayMs, String body) {
+        try {
+            Thread.sleep(delayMs);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (Exception e) {
+            // Client gave up (timeout); nothing to send
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(quantile * sorted.size()) - 1));
+    }
+}
@@ -0,0 +1,144 @@
+package com.apartmentcommunity.loadtest;
+
+import com.apartmentcommunity.booking.model.SlotCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One resident's register, login, availability, book and cancel sequence against
+ * user-service and booking-service. Each step is recorded under its own endpoint name.
+ *
+ * The first step is timed from the arrival's scheduled start rather than from when it was
+ * actually sent, so time spent queued behind a saturated client counts as latency and the
+ * percentiles do not suffer from coordinated omission.
+ */
+final class BookingFlow {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final AtomicLong USER_SEQUENCE = new AtomicLong();
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyRecorder recorder;
+    private final String userServiceUrl;
+    private final String bookingServiceUrl;
+
+    BookingFlow(HttpClient httpClient, LatencyRecorder recorder, String userServiceUrl, String bookingServiceUrl) {
+        this.httpClient = httpClient;
+        this.recorder = recorder;
+        this.userServiceUrl = userServiceUrl;
+        this.bookingServiceUrl = bookingServiceUrl;
+    }
+
+    /**
+     * Runs the sequence for one arrival. A null {@code timeSlot} books a random available
+     * slot; {@code cancel} decides whether a successful booking is cancelled again.
+     */
+    void run(long intendedStartNanos, long amenityId, LocalDate date, String timeSlot, boolean cancel) {
+        String username = "load-" + USER_SEQUENCE.incrementAndGet();
+        String credentials = json(Map.of("username", username, "password", "password",
+                "name", username, "flatNo", "L-" + username, "contactNumber", "555-0100"));
+
+        Result register = send("register", intendedStartNanos,
+                post(userServiceUrl + "/api/register", credentials, null));
+        if (register.status != 201) {
+            return;
+        }
+        Result login = send("login", System.nanoTime(), post(userServiceUrl + "/api/login", credentials, null));
+        if (login.status != 200) {
+            return;
+        }
+        String token = (String) login.body.get("token");
+
+        Result availability = send("availability", System.nanoTime(), HttpRequest.newBuilder(URI.create(
+                bookingServiceUrl + "/api/availability?amenityId=" + amenityId + "&date=" + date))
+                .timeout(REQUEST_TIMEOUT).GET().build());
+        if (availability.status != 200) {
+            return;
+        }
+        if (timeSlot == null) {
+            timeSlot = pickSlot(availability.body);
+            if (timeSlot == null) {
+                return;
+            }
+        }
+
+        Result booking = send("book", System.nanoTime(), post(bookingServiceUrl + "/api/bookings",
+                json(Map.of("amenityId", amenityId, "bookingDate", date.toString(), "timeSlot", timeSlot)), token));
+        if (booking.status != 201 || !cancel) {
+            return;
+        }
+        send("cancel", System.nanoTime(), HttpRequest.newBuilder(URI.create(
+                bookingServiceUrl + "/api/bookings/" + booking.body.get("id")))
+                .timeout(REQUEST_TIMEOUT).header("X-SESSION-TOKEN", token).DELETE().build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String pickSlot(Map<String, Object> availability) {
+        List<String> available = (List<String>) availability.get("availableSlots");
+        if (available == null || available.isEmpty()) {
+            return null;
+        }
+        String label = available.get(ThreadLocalRandom.current().nextInt(available.size()));
+        int start = Integer.parseInt(label.substring(0, 2)) * 60 + Integer.parseInt(label.substring(3, 5));
+        return SlotCodec.format(start, start + ((Number) availability.get("slotMinutes")).intValue());
+    }
+
+    private HttpRequest post(String url, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("X-SESSION-TOKEN", token);
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result send(String endpoint, long startNanos, HttpRequest request) {
+        int status = 0;
+        Map<String, Object> body = Map.of();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            if (response.body().length > 0 && response.body()[0] == '{') {
+                body = objectMapper.readValue(response.body(), Map.class);
+            }
+        } catch (IOException e) {
+            // Recorded as status 0 below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        recorder.record(endpoint, status, System.nanoTime() - startNanos);
+        return new Result(status, body);
+    }
+
+    private String json(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Result {
+        private final int status;
+        private final Map<String, Object> body;
+
+        private Result(int status, Map<String, Object> body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
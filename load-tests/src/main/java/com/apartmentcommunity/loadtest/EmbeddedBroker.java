@@ -0,0 +1,43 @@
+package com.apartmentcommunity.loadtest;
+
+import org.apache.qpid.server.SystemLauncher;
+
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Qpid Broker-J running in this JVM with an in-memory virtual host. It speaks AMQP 0-9-1,
+ * so booking-service connects to it exactly as it would to RabbitMQ.
+ */
+final class EmbeddedBroker implements AutoCloseable {
+    private final SystemLauncher launcher = new SystemLauncher();
+    private final int port;
+
+    EmbeddedBroker(int port) {
+        this.port = port;
+    }
+
+    void start() throws Exception {
+        Map<String, Object> context = new HashMap<>();
+        context.put("qpid.amqp_port", String.valueOf(port));
+        context.put("qpid.work_dir", Files.createTempDirectory("qpid-load-test").toString());
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("type", "Memory");
+        attributes.put("initialConfigurationLocation",
+                EmbeddedBroker.class.getResource("/qpid-broker.json").toExternalForm());
+        attributes.put("startupLoggedToSystemOut", false);
+        attributes.put("context", context);
+        launcher.startup(attributes);
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+}
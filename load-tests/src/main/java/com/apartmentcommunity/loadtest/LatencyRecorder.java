@@ -0,0 +1,69 @@
+package com.apartmentcommunity.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and response status counts per endpoint. Latencies are recorded in
+ * microseconds up to one minute with three significant digits.
+ */
+final class LatencyRecorder {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, int status, long latencyNanos) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        stats.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        stats.statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Prints throughput and p50/p95/p99/max per endpoint and writes each endpoint's full
+     * percentile distribution to {@code <endpoint>.hgrm} in the output directory.
+     * Status 0 stands for requests that failed without a response (timeouts, resets).
+     */
+    void report(PrintStream out, double elapsedSeconds, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        out.printf("%-14s %8s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "statuses");
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            Map<Integer, Long> statuses = new TreeMap<>();
+            entry.getValue().statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+            out.printf("%-14s %8d %9.1f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    entry.getKey(),
+                    latency.getTotalCount(),
+                    latency.getTotalCount() / elapsedSeconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(95)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getMaxValue()),
+                    statuses);
+
+            try (PrintStream hgrm = new PrintStream(
+                    Files.newOutputStream(outputDirectory.resolve(entry.getKey() + ".hgrm")))) {
+                latency.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,93 @@
+package com.apartmentcommunity.loadtest;
+
+import com.apartmentcommunity.booking.BookingServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs booking-service in-process against an embedded Postgres, an in-memory AMQP broker
+ * and a stub user/amenity service, drives it with an open-model workload and reports
+ * throughput and latency percentiles per endpoint.
+ *
+ * Settings are system properties: workload (steady|rush), rate (arrivals per second),
+ * duration (seconds), amenity and slot (rush target), cancelRatio and output (directory
+ * for the .hgrm files).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String workloadName = System.getProperty("workload", "steady");
+        OpenWorkload workload = new OpenWorkload(
+                workloadName,
+                Double.parseDouble(System.getProperty("rate", "100")),
+                Integer.parseInt(System.getProperty("duration", "30")),
+                Long.parseLong(System.getProperty("amenity", "4")),
+                System.getProperty("slot", "09:00-10:00"),
+                Double.parseDouble(System.getProperty("cancelRatio", workloadName.equals("rush") ? "0" : "1")));
+        Path output = Path.of(System.getProperty("output", "target/loadtest")).resolve(workload.getName());
+
+        // Shared by the stub, which signs session tokens, and booking-service, which verifies them
+        String tokenSecret = UUID.randomUUID() + "-" + UUID.randomUUID();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             EmbeddedBroker broker = new EmbeddedBroker(freePort());
+             StubUserService stub = new StubUserService(freePort(), tokenSecret)) {
+            broker.start();
+            stub.start();
+
+            int bookingPort = freePort();
+            ConfigurableApplicationContext bookingService = new SpringApplicationBuilder(BookingServiceApplication.class)
+                    .run("--server.port=" + bookingPort,
+                         "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                         "--spring.datasource.username=postgres",
+                         "--spring.datasource.password=postgres",
+                         "--spring.rabbitmq.host=localhost",
+                         "--spring.rabbitmq.port=" + broker.getPort(),
+                         "--spring.rabbitmq.username=guest",
+                         "--spring.rabbitmq.password=guest",
+                         "--user.service.url=" + stub.getUrl(),
+                         "--amenity.service.url=" + stub.getUrl(),
+                         "--session.token.secret=" + tokenSecret,
+                         "--tracing.log-exporter.enabled=false");
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            BookingFlow flow = new BookingFlow(httpClient, recorder, stub.getUrl(), "http://localhost:" + bookingPort);
+
+            ExecutorService executor = Executors.newCachedThreadPool();
+            long start = System.nanoTime();
+            long arrivals = workload.run(flow, executor);
+            executor.shutdown();
+            if (!executor.awaitTermination(2, TimeUnit.MINUTES)) {
+                System.err.println("Flows still running after 2 minutes; reporting what completed");
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%nWorkload %s: %d arrivals in %.1f s%n", workload.getName(), arrivals, elapsedSeconds);
+            recorder.report(System.out, elapsedSeconds, output);
+            System.out.println("Histograms written to " + output.toAbsolutePath());
+
+            executor.shutdownNow();
+            bookingService.close();
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
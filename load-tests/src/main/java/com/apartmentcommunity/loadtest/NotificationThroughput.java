@@ -0,0 +1,130 @@
+package com.apartmentcommunity.loadtest;
+
+import com.apartmentcommunity.notification.NotificationServiceApplication;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer throughput of notification-service against the in-memory AMQP broker.
+ *
+ * Publishes {@code messages} booking.created events (a {@code poisonRatio} share of them
+ * malformed), then times how long the listener takes to process or dead-letter all of
+ * them. Listener settings are passed through as system properties, for example
+ * {@code -Dnotification.listener.batch-size=50 -Dnotification.listener.prefetch=250}.
+ */
+public class NotificationThroughput {
+    private static final String EXCHANGE = "booking_events";
+    private static final String ROUTING_KEY = "booking.created";
+
+    public static void main(String[] args) throws Exception {
+        int messages = Integer.parseInt(System.getProperty("messages", "100000"));
+        double poisonRatio = Double.parseDouble(System.getProperty("poisonRatio", "0"));
+        long timeoutSeconds = Long.parseLong(System.getProperty("timeout", "300"));
+
+        try (EmbeddedBroker broker = new EmbeddedBroker(LoadTest.freePort())) {
+            broker.start();
+
+            // booking-service is on this classpath too, so keep its application.yml and
+            // database auto-configuration out of the notification context
+            ConfigurableApplicationContext notificationService = new SpringApplicationBuilder(NotificationServiceApplication.class)
+                    .run("--spring.config.name=notification-throughput",
+                         "--spring.application.name=notification-service",
+                         "--spring.main.web-application-type=none",
+                         "--spring.autoconfigure.exclude="
+                                 + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                                 + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+                                 + "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration",
+                         "--spring.rabbitmq.host=localhost",
+                         "--spring.rabbitmq.port=" + broker.getPort(),
+                         "--logging.level.com.apartmentcommunity.notification=WARN",
+                         "--tracing.log-exporter.enabled=false");
+            MeterRegistry meterRegistry = notificationService.getBean(MeterRegistry.class);
+
+            CachingConnectionFactory connectionFactory = new CachingConnectionFactory("localhost", broker.getPort());
+            RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+            Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+            Message poison = new Message("{not json".getBytes(StandardCharsets.UTF_8), jsonProperties());
+
+            int poisoned = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                boolean isPoison = poisonRatio > 0 && i % Math.max(1, Math.round(1 / poisonRatio)) == 0;
+                if (isPoison) {
+                    rabbitTemplate.send(EXCHANGE, ROUTING_KEY, poison);
+                    poisoned++;
+                } else {
+                    Map<String, Object> event = event(i);
+                    MessageProperties properties = new MessageProperties();
+                    properties.setMessageId((String) event.get("eventId"));
+                    rabbitTemplate.send(EXCHANGE, ROUTING_KEY, converter.toMessage(event, properties));
+                }
+            }
+            double publishSeconds = (System.nanoTime() - start) / 1e9;
+
+            long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            double handled;
+            while ((handled = handled(meterRegistry)) < messages && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%nListener: concurrency=%s max-concurrency=%s prefetch=%s batch-size=%s%n",
+                    setting(notificationService, "concurrency"), setting(notificationService, "max-concurrency"),
+                    setting(notificationService, "prefetch"), setting(notificationService, "batch-size"));
+            System.out.printf("Published %d messages (%d poison) in %.2f s%n", messages, poisoned, publishSeconds);
+            System.out.printf("Handled %.0f messages (%.0f dead-lettered) in %.2f s: %.0f msg/s%n",
+                    handled, count(meterRegistry, "dead_lettered"), elapsedSeconds, handled / elapsedSeconds);
+            if (handled < messages) {
+                System.err.println("Timed out before every message was handled");
+            }
+
+            connectionFactory.destroy();
+            notificationService.close();
+        }
+    }
+
+    private static Map<String, Object> event(int i) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventId", UUID.randomUUID().toString());
+        event.put("eventType", "BOOKING_CREATED");
+        event.put("bookingId", (long) i);
+        event.put("amenityId", 1L + i % 6);
+        event.put("userId", 1L + i % 1000);
+        event.put("slotStart", "2030-01-01T09:00");
+        event.put("slotEnd", "2030-01-01T10:00");
+        return event;
+    }
+
+    private static MessageProperties jsonProperties() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return properties;
+    }
+
+    private static double handled(MeterRegistry meterRegistry) {
+        return count(meterRegistry, "processed") + count(meterRegistry, "dead_lettered")
+                + count(meterRegistry, "duplicate");
+    }
+
+    private static double count(MeterRegistry meterRegistry, String outcome) {
+        Counter counter = meterRegistry.find("notification.events").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static String setting(ConfigurableApplicationContext context, String name) {
+        return context.getEnvironment().getProperty("notification.listener." + name, "default");
+    }
+}
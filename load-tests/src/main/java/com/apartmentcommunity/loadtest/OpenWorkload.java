@@ -0,0 +1,78 @@
+package com.apartmentcommunity.loadtest;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: residents arrive as a Poisson process at a fixed mean rate no matter how
+ * quickly earlier ones are served, so a slow system builds up concurrency the way real
+ * traffic does instead of throttling the generator.
+ *
+ * "steady" spreads arrivals over the slot-based amenities, the coming week and random free
+ * slots and cancels every booking again. "rush" is the midnight rush: every arrival goes
+ * for the same slot of the same amenity and keeps what it gets.
+ */
+final class OpenWorkload {
+    private static final long[] SLOT_AMENITIES = {1, 3, 4, 6};
+
+    private final String name;
+    private final double ratePerSecond;
+    private final int durationSeconds;
+    private final long rushAmenityId;
+    private final String rushTimeSlot;
+    private final double cancelRatio;
+
+    OpenWorkload(String name, double ratePerSecond, int durationSeconds,
+                 long rushAmenityId, String rushTimeSlot, double cancelRatio) {
+        if (!name.equals("steady") && !name.equals("rush")) {
+            throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+        this.name = name;
+        this.ratePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.rushAmenityId = rushAmenityId;
+        this.rushTimeSlot = rushTimeSlot;
+        this.cancelRatio = cancelRatio;
+    }
+
+    /**
+     * Schedules arrivals on the calling thread and hands each one to the executor, which
+     * must not bound its queue or thread count. Returns the number of arrivals.
+     */
+    long run(BookingFlow flow, ExecutorService executor) {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long arrivals = 0;
+
+        double next = start;
+        while (next < end) {
+            long intendedStart = (long) next;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            boolean cancel = random.nextDouble() < cancelRatio;
+            if (name.equals("rush")) {
+                executor.execute(() -> flow.run(intendedStart, rushAmenityId, tomorrow, rushTimeSlot, cancel));
+            } else {
+                long amenityId = SLOT_AMENITIES[random.nextInt(SLOT_AMENITIES.length)];
+                LocalDate date = tomorrow.plusDays(random.nextInt(7));
+                executor.execute(() -> flow.run(intendedStart, amenityId, date, null, cancel));
+            }
+            arrivals++;
+            next += -Math.log(1 - random.nextDouble()) * meanGapNanos;
+        }
+        return arrivals;
+    }
+
+    String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,238 @@
+package com.apartmentcommunity.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for user-service and amenity-service: registers users in memory, issues session
+ * tokens and resolves them, and serves a fixed set of amenity rules. Only the endpoints
+ * booking-service and the load test call are implemented.
+ *
+ * Tokens are signed in user-service's v1 format with the secret booking-service is started
+ * with, so booking-service verifies them locally as it does in production.
+ */
+final class StubUserService implements AutoCloseable {
+    private static final String TOKEN_PREFIX = "v1.";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final long TOKEN_TTL_SECONDS = 24 * 60 * 60;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Map<String, Object>> usersByName = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Object>> usersById = new ConcurrentHashMap<>();
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextUserId = new AtomicLong(1);
+    private final List<Map<String, Object>> amenities = List.of(
+            amenity(1, "Gym", "GYM", false, 10, null),
+            amenity(2, "Party Hall", "HALL", true, 10, 1),
+            amenity(3, "Swimming Pool", "SWIMMING", false, 10, null),
+            amenity(4, "Tennis Court", "TENNIS", false, 2, null),
+            amenity(5, "BBQ Area", "BBQ", true, 10, 4),
+            amenity(6, "Guest Car Parking", "PARKING", false, 10, null));
+    private final SecretKeySpec tokenKey;
+    private final HttpServer server;
+
+    StubUserService(int port, String tokenSecret) throws IOException {
+        tokenKey = new SecretKeySpec(tokenSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/register", exchange -> handle(exchange, this::register));
+        server.createContext("/api/login", exchange -> handle(exchange, this::login));
+        server.createContext("/api/session/", exchange -> handle(exchange, this::session));
+        server.createContext("/api/users/", exchange -> handle(exchange, this::users));
+        server.createContext("/api/amenities", exchange -> handle(exchange, this::amenities));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    List<Map<String, Object>> getAmenities() {
+        return amenities;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response register(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+        String username = (String) request.get("username");
+        long id = nextUserId.getAndIncrement();
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", id);
+        user.put("username", username);
+        user.put("name", request.getOrDefault("name", username));
+        user.put("flatNo", request.getOrDefault("flatNo", "A-" + id));
+        user.put("contactNumber", request.getOrDefault("contactNumber", "555-" + id));
+        user.put("role", "USER");
+        if (usersByName.putIfAbsent(username, user) != null) {
+            return new Response(400, null);
+        }
+        usersById.put(id, user);
+        return new Response(201, newSession(user));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response login(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+        Map<String, Object> user = usersByName.get((String) request.get("username"));
+        return user == null ? new Response(401, null) : new Response(200, newSession(user));
+    }
+
+    private Response session(HttpExchange exchange) {
+        String token = exchange.getRequestURI().getPath().substring("/api/session/".length());
+        if (token.equals("revocations")) {
+            return new Response(200, List.of());
+        }
+        Long userId = sessions.get(token);
+        if (userId == null) {
+            return new Response(401, null);
+        }
+        if ("DELETE".equals(exchange.getRequestMethod())) {
+            sessions.remove(token);
+            return new Response(204, null);
+        }
+        Map<String, Object> user = usersById.get(userId);
+        Map<String, Object> session = new HashMap<>();
+        session.put("userId", userId);
+        session.put("username", user.get("username"));
+        session.put("role", user.get("role"));
+        return new Response(200, session);
+    }
+
+    private Response users(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/api/users/batch")) {
+            List<Map<String, Object>> found = new ArrayList<>();
+            for (Object id : objectMapper.readValue(exchange.getRequestBody(), List.class)) {
+                Map<String, Object> user = usersById.get(((Number) id).longValue());
+                if (user != null) {
+                    found.add(user);
+                }
+            }
+            return new Response(200, found);
+        }
+        Map<String, Object> user = usersById.get(Long.valueOf(path.substring("/api/users/".length())));
+        return user == null ? new Response(404, null) : new Response(200, user);
+    }
+
+    private Response amenities(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/api/amenities") || path.equals("/api/amenities/")) {
+            return new Response(200, amenities);
+        }
+        long id = Long.parseLong(path.substring("/api/amenities/".length()));
+        return amenities.stream()
+                .filter(amenity -> ((Number) amenity.get("id")).longValue() == id)
+                .findFirst()
+                .map(amenity -> new Response(200, amenity))
+                .orElse(new Response(404, null));
+    }
+
+    private Map<String, Object> newSession(Map<String, Object> user) throws IOException {
+        String token = signedToken(user);
+        sessions.put(token, (Long) user.get("id"));
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", token);
+        response.put("username", user.get("username"));
+        response.put("role", user.get("role"));
+        return response;
+    }
+
+    // Same claims and encoding as user-service's SessionTokenSigner
+    private String signedToken(Map<String, Object> user) throws IOException {
+        long now = System.currentTimeMillis();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("sub", user.get("id"));
+        claims.put("usr", user.get("username"));
+        claims.put("role", user.get("role"));
+        claims.put("iat", now / 1000);
+        claims.put("iat_ms", now);
+        claims.put("exp", now / 1000 + TOKEN_TTL_SECONDS);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signingInput = TOKEN_PREFIX + encoder.encodeToString(objectMapper.writeValueAsBytes(claims));
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(tokenKey);
+            return signingInput + "." + encoder.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign session token", e);
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = handler.handle(exchange);
+            } catch (RuntimeException e) {
+                response = new Response(400, null);
+            }
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+                return;
+            }
+            byte[] body = objectMapper.writeValueAsBytes(response.body);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static Map<String, Object> amenity(long id, String name, String type, boolean dayBased,
+                                               int slotCapacity, Integer dailyCapacity) {
+        Map<String, Object> amenity = new HashMap<>();
+        amenity.put("id", id);
+        amenity.put("name", name);
+        amenity.put("amenityType", type);
+        amenity.put("dayBased", dayBased);
+        amenity.put("slotMinutes", 60);
+        amenity.put("openingTime", "09:00");
+        amenity.put("closingTime", "17:00");
+        amenity.put("slotCapacity", slotCapacity);
+        amenity.put("dailyCapacity", dailyCapacity);
+        return amenity;
+    }
+
+    private interface Handler {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Response {
+        private final int status;
+        private final Object body;
+
+        private Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.apartmentcommunity.amenity.controller;
 
 import com.apartmentcommunity.amenity.model.Amenity;
 import com.apartmentcommunity.amenity.service.AmenityService;
+import com.apartmentcommunity.amenity.service.UserServiceClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,10 +14,12 @@ import java.util.List;
 @RequestMapping("/api/amenities")
 public class AmenityController {
     private final AmenityService amenityService;
+    private final UserServiceClient userServiceClient;
 
     @Autowired
-    public AmenityController(AmenityService amenityService) {
+    public AmenityController(AmenityService amenityService, UserServiceClient userServiceClient) {
         this.amenityService = amenityService;
+        this.userServiceClient = userServiceClient;
     }
 
     @GetMapping
@@ -25,9 +28,46 @@ public class AmenityController {
         return ResponseEntity.ok(amenities);
     }
 
+    @GetMapping("/{id}")
+    public ResponseEntity<Amenity> getAmenity(@PathVariable Long id) {
+        return amenityService.getAmenityById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
     @PostMapping
     public ResponseEntity<Amenity> createAmenity(@RequestBody Amenity amenity) {
-        Amenity created = amenityService.createAmenity(amenity);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        try {
+            Amenity created = amenityService.createAmenity(amenity);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Replaces the booking rules (type, slot length, opening hours, capacities) of an amenity.
+     * booking-service picks the change up from the amenity_events broadcast. Admin only.
+     */
+    @PutMapping("/{id}/rules")
+    public ResponseEntity<Amenity> updateRules(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @PathVariable Long id,
+            @RequestBody Amenity rules) {
+        if (sessionToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!userServiceClient.isAdmin(sessionToken)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (amenityService.getAmenityById(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        try {
+            return ResponseEntity.ok(amenityService.updateRules(id, rules));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 }
@@ -0,0 +1,24 @@
+package com.apartmentcommunity.amenity.event;
+
+import com.apartmentcommunity.amenity.model.Amenity;
+
+/**
+ * An amenity was created or its booking rules changed.
+ */
+public class AmenityChangedEvent {
+    private final Amenity amenity;
+    private final boolean created;
+
+    public AmenityChangedEvent(Amenity amenity, boolean created) {
+        this.amenity = amenity;
+        this.created = created;
+    }
+
+    public Amenity getAmenity() {
+        return amenity;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+}
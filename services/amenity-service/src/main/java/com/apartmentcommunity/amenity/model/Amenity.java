@@ -2,6 +2,7 @@ package com.apartmentcommunity.amenity.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Entity
 @Table(name = "amenities")
@@ -19,12 +20,43 @@ public class Amenity {
     @Column(nullable = false)
     private Integer capacity;
 
+    // Booking rules, enforced by booking-service from its cached copy
+    @Column(name = "amenity_type", nullable = false, length = 20)
+    private String amenityType;
+
+    @Column(name = "day_based", nullable = false)
+    private boolean dayBased;
+
+    @Column(name = "slot_minutes", nullable = false)
+    private Integer slotMinutes = 60;
+
+    @Column(name = "opening_time", nullable = false)
+    private LocalTime openingTime = LocalTime.of(9, 0);
+
+    @Column(name = "closing_time", nullable = false)
+    private LocalTime closingTime = LocalTime.of(17, 0);
+
+    @Column(name = "slot_capacity", nullable = false)
+    private Integer slotCapacity = 10;
+
+    @Column(name = "daily_capacity")
+    private Integer dailyCapacity;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 
     // Constructors
@@ -69,6 +101,62 @@ public class Amenity {
         this.capacity = capacity;
     }
 
+    public String getAmenityType() {
+        return amenityType;
+    }
+
+    public void setAmenityType(String amenityType) {
+        this.amenityType = amenityType;
+    }
+
+    public boolean isDayBased() {
+        return dayBased;
+    }
+
+    public void setDayBased(boolean dayBased) {
+        this.dayBased = dayBased;
+    }
+
+    public Integer getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public void setSlotMinutes(Integer slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+
+    public LocalTime getOpeningTime() {
+        return openingTime;
+    }
+
+    public void setOpeningTime(LocalTime openingTime) {
+        this.openingTime = openingTime;
+    }
+
+    public LocalTime getClosingTime() {
+        return closingTime;
+    }
+
+    public void setClosingTime(LocalTime closingTime) {
+        this.closingTime = closingTime;
+    }
+
+    public Integer getSlotCapacity() {
+        return slotCapacity;
+    }
+
+    public void setSlotCapacity(Integer slotCapacity) {
+        this.slotCapacity = slotCapacity;
+    }
+
+    public Integer getDailyCapacity() {
+        return dailyCapacity;
+    }
+
+    public void setDailyCapacity(Integer dailyCapacity) {
+        this.dailyCapacity = dailyCapacity;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -76,4 +164,12 @@ public class Amenity {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
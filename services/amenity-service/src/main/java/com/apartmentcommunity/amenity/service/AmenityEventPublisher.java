@@ -0,0 +1,57 @@
+package com.apartmentcommunity.amenity.service;
+
+import com.apartmentcommunity.amenity.config.RabbitMQConfig;
+import com.apartmentcommunity.amenity.event.AmenityChangedEvent;
+import com.apartmentcommunity.amenity.model.Amenity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Broadcasts amenity rule changes so booking-service can update its cached copy without
+ * polling. The event carries the complete rules, not just the id.
+ */
+@Service
+public class AmenityEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(AmenityEventPublisher.class);
+
+    private static final String AMENITY_CREATED_ROUTING_KEY = "amenity.created";
+    private static final String AMENITY_UPDATED_ROUTING_KEY = "amenity.updated";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    public AmenityEventPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAmenityChanged(AmenityChangedEvent changedEvent) {
+        Amenity amenity = changedEvent.getAmenity();
+        try {
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", changedEvent.isCreated() ? "AMENITY_CREATED" : "AMENITY_UPDATED");
+            event.put("amenityId", amenity.getId());
+            event.put("amenityType", amenity.getAmenityType());
+            event.put("dayBased", amenity.isDayBased());
+            event.put("slotMinutes", amenity.getSlotMinutes());
+            event.put("openingTime", amenity.getOpeningTime().toString());
+            event.put("closingTime", amenity.getClosingTime().toString());
+            event.put("slotCapacity", amenity.getSlotCapacity());
+            event.put("dailyCapacity", amenity.getDailyCapacity());
+
+            rabbitTemplate.convertAndSend(RabbitMQConfig.AMENITY_EXCHANGE_NAME,
+                    changedEvent.isCreated() ? AMENITY_CREATED_ROUTING_KEY : AMENITY_UPDATED_ROUTING_KEY, event);
+        } catch (Exception e) {
+            // booking-service also reloads all rules periodically, so a lost event only delays the change
+            logger.warn("Failed to publish amenity event: {}", e.getMessage());
+        }
+    }
+}
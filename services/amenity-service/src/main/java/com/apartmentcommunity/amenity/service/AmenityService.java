@@ -1,20 +1,30 @@
 package com.apartmentcommunity.amenity.service;
 
+import com.apartmentcommunity.amenity.event.AmenityChangedEvent;
 import com.apartmentcommunity.amenity.model.Amenity;
 import com.apartmentcommunity.amenity.repository.AmenityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class AmenityService {
+    // Must stay in sync with booking-service's AmenityType enum
+    private static final Set<String> AMENITY_TYPES = Set.of("GYM", "TENNIS", "SWIMMING", "PARKING", "HALL", "BBQ");
+
     private final AmenityRepository amenityRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AmenityService(AmenityRepository amenityRepository) {
+    public AmenityService(AmenityRepository amenityRepository, ApplicationEventPublisher eventPublisher) {
         this.amenityRepository = amenityRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Amenity> getAllAmenities() {
@@ -25,7 +35,59 @@ public class AmenityService {
         return amenityRepository.findById(id);
     }
 
+    @Transactional
     public Amenity createAmenity(Amenity amenity) {
-        return amenityRepository.save(amenity);
+        validateRules(amenity);
+        Amenity saved = amenityRepository.save(amenity);
+        eventPublisher.publishEvent(new AmenityChangedEvent(saved, true));
+        return saved;
+    }
+
+    /**
+     * Replaces the booking rules of an amenity. Name, description and capacity are left as they are.
+     */
+    @Transactional
+    public Amenity updateRules(Long id, Amenity rules) {
+        validateRules(rules);
+        Amenity amenity = amenityRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Amenity not found"));
+
+        amenity.setAmenityType(rules.getAmenityType());
+        amenity.setDayBased(rules.isDayBased());
+        amenity.setSlotMinutes(rules.getSlotMinutes());
+        amenity.setOpeningTime(rules.getOpeningTime());
+        amenity.setClosingTime(rules.getClosingTime());
+        amenity.setSlotCapacity(rules.getSlotCapacity());
+        amenity.setDailyCapacity(rules.getDailyCapacity());
+        Amenity saved = amenityRepository.saveAndFlush(amenity);
+        eventPublisher.publishEvent(new AmenityChangedEvent(saved, false));
+        return saved;
+    }
+
+    private void validateRules(Amenity amenity) {
+        if (amenity.getAmenityType() == null || !AMENITY_TYPES.contains(amenity.getAmenityType())) {
+            throw new IllegalArgumentException("Unsupported amenity type: " + amenity.getAmenityType());
+        }
+        if (amenity.getSlotMinutes() == null || amenity.getSlotMinutes() <= 0 || amenity.getSlotMinutes() % 15 != 0) {
+            throw new IllegalArgumentException("Slot length must be a positive multiple of 15 minutes");
+        }
+        if (amenity.getOpeningTime() == null || amenity.getClosingTime() == null
+                || !amenity.getOpeningTime().isBefore(amenity.getClosingTime())) {
+            throw new IllegalArgumentException("Opening time must be before closing time");
+        }
+        // booking-service counts occupancy in 15-minute buckets from midnight
+        if (!isQuarterHour(amenity.getOpeningTime()) || !isQuarterHour(amenity.getClosingTime())) {
+            throw new IllegalArgumentException("Opening and closing times must be on a quarter hour");
+        }
+        if (amenity.getSlotCapacity() == null || amenity.getSlotCapacity() < 1) {
+            throw new IllegalArgumentException("Slot capacity must be at least 1");
+        }
+        if (amenity.isDayBased() && (amenity.getDailyCapacity() == null || amenity.getDailyCapacity() < 1)) {
+            throw new IllegalArgumentException("Day-based amenities need a daily capacity of at least 1");
+        }
+    }
+
+    private static boolean isQuarterHour(LocalTime time) {
+        return time.getMinute() % 15 == 0 && time.getSecond() == 0 && time.getNano() == 0;
     }
 }
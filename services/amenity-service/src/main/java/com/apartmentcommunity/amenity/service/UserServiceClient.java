@@ -0,0 +1,58 @@
+package com.apartmentcommunity.amenity.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Resolves session tokens through user-service for the amenity endpoints that need an admin.
+ * Those are rare configuration calls, so every check goes to user-service and sees logouts
+ * and role changes immediately.
+ */
+@Service
+public class UserServiceClient {
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String userServiceUrl;
+
+    @Autowired
+    public UserServiceClient(@Value("${user.service.url:http://localhost:8085}") String userServiceUrl,
+                             @Value("${user.service.timeout-ms:2000}") long timeoutMs,
+                             RestTemplateBuilder restTemplateBuilder) {
+        this.userServiceUrl = userServiceUrl;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMs))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+
+    /**
+     * @return true if the token belongs to an active admin session; false if it does not, or
+     *         if user-service cannot be reached
+     */
+    @SuppressWarnings("unchecked")
+    public boolean isAdmin(String sessionToken) {
+        try {
+            ResponseEntity<Map<String, Object>> response = restTemplate.getForEntity(
+                    userServiceUrl + "/api/session/{token}", (Class<Map<String, Object>>) (Class<?>) Map.class,
+                    sessionToken);
+            return response.getBody() != null && "ADMIN".equals(response.getBody().get("role"));
+        } catch (HttpClientErrorException e) {
+            // Unknown, expired or revoked session
+            return false;
+        } catch (Exception e) {
+            logger.warn("Error calling user service: {}", e.getMessage());
+            return false;
+        }
+    }
+}
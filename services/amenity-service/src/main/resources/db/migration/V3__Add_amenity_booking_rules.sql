@@ -0,0 +1,27 @@
+-- Booking rules are owned by amenity-service; booking-service keeps a cached copy
+ALTER TABLE amenities
+    ADD COLUMN IF NOT EXISTS amenity_type VARCHAR(20),
+    ADD COLUMN IF NOT EXISTS day_based BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN IF NOT EXISTS slot_minutes INTEGER NOT NULL DEFAULT 60,
+    ADD COLUMN IF NOT EXISTS opening_time TIME NOT NULL DEFAULT '09:00',
+    ADD COLUMN IF NOT EXISTS closing_time TIME NOT NULL DEFAULT '17:00',
+    ADD COLUMN IF NOT EXISTS slot_capacity INTEGER NOT NULL DEFAULT 10,
+    ADD COLUMN IF NOT EXISTS daily_capacity INTEGER,
+    ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Carry over the rules that used to be hardcoded in booking-service and the UI
+UPDATE amenities SET amenity_type = 'GYM' WHERE name = 'Gym';
+UPDATE amenities SET amenity_type = 'SWIMMING' WHERE name = 'Swimming Pool';
+UPDATE amenities SET amenity_type = 'PARKING' WHERE name = 'Guest Car Parking';
+UPDATE amenities SET amenity_type = 'TENNIS', slot_capacity = 2 WHERE name = 'Tennis Court';
+UPDATE amenities SET amenity_type = 'HALL', day_based = TRUE, daily_capacity = 1 WHERE name = 'Party Hall';
+UPDATE amenities SET amenity_type = 'BBQ', day_based = TRUE, daily_capacity = 4 WHERE name = 'BBQ Area';
+UPDATE amenities SET amenity_type = 'GYM' WHERE amenity_type IS NULL;
+
+ALTER TABLE amenities ALTER COLUMN amenity_type SET NOT NULL;
+ALTER TABLE amenities ADD CONSTRAINT chk_amenities_slot_minutes
+    CHECK (slot_minutes > 0 AND slot_minutes % 15 = 0);
+ALTER TABLE amenities ADD CONSTRAINT chk_amenities_opening_hours
+    CHECK (opening_time < closing_time);
+ALTER TABLE amenities ADD CONSTRAINT chk_amenities_daily_capacity
+    CHECK (NOT day_based OR daily_capacity IS NOT NULL);
@@ -0,0 +1,6 @@
+-- Availability is tracked in 15-minute buckets, so opening hours must fall on bucket boundaries.
+-- NOT VALID: enforced for new and updated rows without failing on rows saved before the check.
+ALTER TABLE amenities ADD CONSTRAINT chk_amenities_opening_hours_aligned
+    CHECK (EXTRACT(MINUTE FROM opening_time)::INTEGER % 15 = 0 AND EXTRACT(SECOND FROM opening_time) = 0
+       AND EXTRACT(MINUTE FROM closing_time)::INTEGER % 15 = 0 AND EXTRACT(SECOND FROM closing_time) = 0)
+    NOT VALID;
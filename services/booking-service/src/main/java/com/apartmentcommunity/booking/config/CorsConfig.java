@@ -16,6 +16,7 @@ public class CorsConfig {
                     .allowedOrigins("*")
                     .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                     .allowedHeaders("*")
+                    .exposedHeaders("Retry-After", "Idempotent-Replayed")
                     .allowCredentials(false);
             }
         };
@@ -1,25 +1,76 @@
 package com.apartmentcommunity.booking.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class RabbitMQConfig {
     public static final String EXCHANGE_NAME = "booking_events";
+    public static final String SESSION_EXCHANGE_NAME = "session_events";
+    public static final String AMENITY_EXCHANGE_NAME = "amenity_events";
 
     @Bean
     public TopicExchange bookingExchange() {
         return new TopicExchange(EXCHANGE_NAME, true, false);
     }
 
+    @Bean
+    public TopicExchange sessionExchange() {
+        return new TopicExchange(SESSION_EXCHANGE_NAME, true, false);
+    }
+
+    // Every booking-service instance holds its own session cache, so each one
+    // gets a private auto-delete queue instead of competing on a shared one
+    @Bean
+    public Queue sessionEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding sessionEventsBinding() {
+        return BindingBuilder.bind(sessionEventsQueue())
+            .to(sessionExchange())
+            .with("session.#");
+    }
+
+    @Bean
+    public TopicExchange amenityExchange() {
+        return new TopicExchange(AMENITY_EXCHANGE_NAME, true, false);
+    }
+
+    // Same for the amenity rules snapshot: every instance needs every change
+    @Bean
+    public Queue amenityEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding amenityEventsBinding() {
+        return BindingBuilder.bind(amenityEventsQueue())
+            .to(amenityExchange())
+            .with("amenity.#");
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(new Jackson2JsonMessageConverter());
+        template.setMessageConverter(jsonMessageConverter());
+        // spring.rabbit.template timers for publish latency
+        template.setObservationEnabled(true);
         return template;
     }
 }
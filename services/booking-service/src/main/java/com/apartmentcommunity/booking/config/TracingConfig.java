@@ -0,0 +1,22 @@
+package com.apartmentcommunity.booking.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exports finished spans as OTLP JSON lines through the
+ * {@code io.opentelemetry.exporter.logging.otlp} logger, which logback-spring.xml writes to
+ * its own file. Needs no collector, so traces can be inspected offline.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.log-exporter.enabled", havingValue = "true", matchIfMissing = true)
+    public SpanExporter otlpJsonLoggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,138 @@
+package com.apartmentcommunity.booking.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * HTTP client, circuit breaker and bulkhead for calls to user-service.
+ *
+ * Connections are pooled and kept alive, and every phase of a call (pool lease, connect,
+ * response) is bounded, so a slow user-service costs at most the configured timeouts.
+ * The bulkhead caps how many request threads can be waiting on user-service at once, and
+ * the circuit breaker stops calling it altogether while it is failing or slow.
+ */
+@Configuration
+public class UserServiceClientConfig {
+    public static final String USER_SERVICE = "user-service";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager userServiceConnectionManager(
+            @Value("${user.service.http.max-connections:50}") int maxConnections,
+            @Value("${user.service.http.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${user.service.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${user.service.http.response-timeout-ms:2000}") long responseTimeoutMs,
+            @Value("${user.service.http.connection-ttl-seconds:60}") long connectionTtlSeconds,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(connectionTtlSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        // httpcomponents.httpclient.pool.* (leased, available, pending) show pool saturation
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, USER_SERVICE).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient userServiceHttpClient(
+            @Qualifier("userServiceConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${user.service.http.pool-timeout-ms:250}") long poolTimeoutMs,
+            @Value("${user.service.http.response-timeout-ms:2000}") long responseTimeoutMs,
+            @Value("${user.service.http.idle-timeout-seconds:30}") long idleTimeoutSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleTimeoutSeconds))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate userServiceRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                                @Qualifier("userServiceHttpClient") CloseableHttpClient httpClient) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+
+    @Bean
+    public CircuitBreaker userServiceCircuitBreaker(
+            @Value("${user.service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${user.service.circuit-breaker.slow-call-duration-ms:1500}") long slowCallDurationMs,
+            @Value("${user.service.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${user.service.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${user.service.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${user.service.circuit-breaker.open-duration-ms:10000}") long openDurationMs,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(Duration.ofMillis(openDurationMs))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // A 4xx means user-service answered; it is not a sign of trouble
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        // resilience4j.circuitbreaker.state / .calls / .failure.rate
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(USER_SERVICE);
+    }
+
+    @Bean
+    public Bulkhead userServiceBulkhead(
+            @Value("${user.service.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${user.service.bulkhead.max-wait-ms:50}") long maxWaitMs,
+            MeterRegistry meterRegistry) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ofMillis(maxWaitMs))
+                .build();
+
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        // resilience4j.bulkhead.available.concurrent.calls
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(USER_SERVICE);
+    }
+}
@@ -1,120 +1,128 @@
 package com.apartmentcommunity.booking.controller;
 
+import com.apartmentcommunity.booking.dto.BookingPageResponse;
 import com.apartmentcommunity.booking.dto.BookingRequest;
 import com.apartmentcommunity.booking.dto.BookingResponse;
+import com.apartmentcommunity.booking.dto.BookingSearchCriteria;
+import com.apartmentcommunity.booking.dto.BookingSeriesRequest;
+import com.apartmentcommunity.booking.dto.BookingSeriesResponse;
 import com.apartmentcommunity.booking.exception.BookingValidationException;
+import com.apartmentcommunity.booking.exception.InvalidBookingRequestException;
 import com.apartmentcommunity.booking.model.AmenityType;
 import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.BookingUserStats;
+import com.apartmentcommunity.booking.service.AdaptiveConcurrencyLimiter;
+import com.apartmentcommunity.booking.service.AvailabilityView;
+import com.apartmentcommunity.booking.service.AvailabilityBroadcaster;
+import com.apartmentcommunity.booking.service.BookingCursor;
+import com.apartmentcommunity.booking.service.BookingExportService;
+import com.apartmentcommunity.booking.service.BookingIdempotencyService;
 import com.apartmentcommunity.booking.service.BookingService;
+import com.apartmentcommunity.booking.service.BookingStatsService;
+import com.apartmentcommunity.booking.service.SingleFlight;
+import com.apartmentcommunity.booking.service.SlotOccupancyIndex;
+import com.apartmentcommunity.booking.service.UserRateLimiter;
 import com.apartmentcommunity.booking.service.UserServiceClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
 public class BookingController {
+    private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
+    private static final int MAX_MATRIX_DAYS = 31;
+    private static final int MAX_MATRIX_AMENITIES = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     private final UserServiceClient userServiceClient;
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
+    private final BookingStatsService bookingStatsService;
+    private final AvailabilityBroadcaster availabilityBroadcaster;
+    private final UserRateLimiter userRateLimiter;
+    private final BookingIdempotencyService bookingIdempotencyService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final long overloadRetryAfterSeconds;
+    private final SingleFlight<String, Map<String, Object>> availabilityFlights = new SingleFlight<>();
 
     @Autowired
-    public BookingController(UserServiceClient userServiceClient, BookingService bookingService) {
+    public BookingController(UserServiceClient userServiceClient, BookingService bookingService,
+                             BookingExportService bookingExportService, BookingStatsService bookingStatsService,
+                             AvailabilityBroadcaster availabilityBroadcaster, UserRateLimiter userRateLimiter,
+                             AdaptiveConcurrencyLimiter concurrencyLimiter,
+                             BookingIdempotencyService bookingIdempotencyService,
+                             @Value("${booking.admission.concurrency.retry-after-seconds:1}") long overloadRetryAfterSeconds) {
         this.userServiceClient = userServiceClient;
         this.bookingService = bookingService;
+        this.bookingExportService = bookingExportService;
+        this.bookingStatsService = bookingStatsService;
+        this.availabilityBroadcaster = availabilityBroadcaster;
+        this.userRateLimiter = userRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.bookingIdempotencyService = bookingIdempotencyService;
+        this.overloadRetryAfterSeconds = overloadRetryAfterSeconds;
     }
 
+    /**
+     * Availability of one amenity on one day. The response carries an ETag that changes with
+     * every booking change for the day; a matching If-None-Match is answered with 304 before
+     * anything is computed.
+     */
     @GetMapping("/availability")
     public ResponseEntity<Map<String, Object>> getAvailability(
             @RequestParam("amenityId") Long amenityId,
-            @RequestParam("date") String date) {
+            @RequestParam("date") String date,
+            WebRequest webRequest) {
         try {
-            System.out.println("=== Availability Request ===");
-            System.out.println("AmenityId: " + amenityId);
-            System.out.println("Date: " + date);
-
             LocalDate localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
-            System.out.println("Parsed date: " + localDate);
-
-            List<Booking> bookings = bookingService.getBookingsForDate(amenityId, localDate);
-            System.out.println("Bookings count: " + bookings.size());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("amenityId", amenityId);
-            response.put("date", date);
-
-            // Check if this is a day-based amenity (HALL or BBQ)
-            boolean isDayBased = false;
-            if (!bookings.isEmpty()) {
-                // If bookings exist, check the amenity type from the first booking
-                AmenityType firstBookingType = bookings.get(0).getAmenityType();
-                isDayBased = firstBookingType == AmenityType.HALL || firstBookingType == AmenityType.BBQ;
-            } else {
-                // If no bookings exist, check all bookings for this amenity across all dates
-                // to determine the amenity type
-                List<Booking> allAmenityBookings = bookingService.getBookingsByAmenity(amenityId);
-                if (!allAmenityBookings.isEmpty()) {
-                    AmenityType firstBookingType = allAmenityBookings.get(0).getAmenityType();
-                    isDayBased = firstBookingType == AmenityType.HALL || firstBookingType == AmenityType.BBQ;
-                }
-                // If still no bookings found, we can't determine from bookings
-                // The UI will use its own getAmenityType() function as fallback
-                // We'll return isDayBased as false, and UI will override based on amenity name
-            }
-
-            if (isDayBased) {
-                // For day-based amenities, return simple booked status
-                response.put("isDayBased", true);
-                response.put("isBooked", !bookings.isEmpty());
-                response.put("bookingCount", bookings.size());
-            } else {
-                // For slot-based amenities, return time slot information with counts
-                response.put("isDayBased", false);
-
-                List<LocalTime> availableSlots = bookingService.getAvailableSlots(amenityId, localDate);
-                List<String> availableSlotsStr = availableSlots.stream()
-                        .map(LocalTime::toString)
-                        .collect(Collectors.toList());
-                response.put("availableSlots", availableSlotsStr);
-
-                // Group bookings by time slot and count them
-                Map<String, Integer> bookedSlotsCount = new HashMap<>();
-                Map<String, List<Long>> bookedSlotsUsers = new HashMap<>();
-
-                for (Booking booking : bookings) {
-                    String timeSlot = booking.getTimeSlot();
-                    if (timeSlot != null && !timeSlot.isEmpty()) {
-                        // Extract start time from timeSlot (format: "HH:mm-HH:mm")
-                        String slotStartTime = timeSlot.split("-")[0];
-                        bookedSlotsCount.put(slotStartTime, bookedSlotsCount.getOrDefault(slotStartTime, 0) + 1);
-                        bookedSlotsUsers.computeIfAbsent(slotStartTime, k -> new ArrayList<>())
-                                .add(booking.getUserId());
-                    } else {
-                        // Fallback to slotStart time if timeSlot is null
-                        String slotTime = booking.getSlotStart().toLocalTime().toString();
-                        bookedSlotsCount.put(slotTime, bookedSlotsCount.getOrDefault(slotTime, 0) + 1);
-                        bookedSlotsUsers.computeIfAbsent(slotTime, k -> new ArrayList<>()).add(booking.getUserId());
-                    }
-                }
 
-                response.put("bookedSlots", bookedSlotsCount);
+            // The version is read before the counts, so the ETag is never newer than the body
+            String version = bookingService.getAvailabilityVersion(amenityId, localDate);
+            String etag = "\"" + version + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null;
             }
 
-            System.out.println("Response: " + response);
-            return ResponseEntity.ok(response);
+            // Concurrent requests for the same day and version share one computation
+            Map<String, Object> response = availabilityFlights.execute(amenityId + "/" + date + "/" + version,
+                    () -> buildAvailability(amenityId, date, localDate));
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("ERROR in getAvailability:");
-            e.printStackTrace();
+            logger.error("Error computing availability for amenity {} on {}", amenityId, date, e);
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
             errorResponse.put("message", e.getClass().getSimpleName());
@@ -122,9 +130,75 @@ public class BookingController {
         }
     }
 
+    private Map<String, Object> buildAvailability(Long amenityId, String date, LocalDate localDate) {
+        // Counts come from the in-memory occupancy index; no bookings are loaded
+        int[] occupancy = bookingService.getOccupancy(amenityId, localDate);
+        logger.debug("Availability for amenity {} on {}: {} bookings",
+                amenityId, localDate, occupancy[SlotOccupancyIndex.DAY_TOTAL]);
+        return AvailabilityView.build(bookingService.getRules(amenityId), amenityId, date, occupancy);
+    }
+
+    /**
+     * Server-sent events with the booking counts for one amenity and date: a "snapshot"
+     * on connect, then a "slot" event for every committed create or cancellation.
+     */
+    @GetMapping("/availability/stream")
+    public ResponseEntity<?> streamAvailability(
+            @RequestParam("amenityId") Long amenityId,
+            @RequestParam("date") String date) {
+        LocalDate localDate;
+        try {
+            localDate = LocalDate.parse(date, DateTimeFormatter.ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Date must be yyyy-MM-dd"));
+        }
+
+        try {
+            bookingService.getRules(amenityId);
+            // Tells the nginx ingress to pass events through instead of buffering them
+            return ResponseEntity.ok()
+                    .header("X-Accel-Buffering", "no")
+                    .body(availabilityBroadcaster.subscribe(amenityId, localDate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/availability/matrix")
+    public ResponseEntity<Map<String, Object>> getAvailabilityMatrix(
+            @RequestParam("from") String from,
+            @RequestParam("to") String to,
+            @RequestParam("amenityIds") List<Long> amenityIds) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from, DateTimeFormatter.ISO_DATE);
+            toDate = LocalDate.parse(to, DateTimeFormatter.ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Dates must be yyyy-MM-dd"));
+        }
+
+        long days = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        Set<Long> uniqueAmenityIds = new LinkedHashSet<>(amenityIds);
+        if (days < 1 || days > MAX_MATRIX_DAYS || uniqueAmenityIds.isEmpty()
+                || uniqueAmenityIds.size() > MAX_MATRIX_AMENITIES) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error",
+                    "Request 1-" + MAX_MATRIX_DAYS + " days and 1-" + MAX_MATRIX_AMENITIES + " amenities"));
+        }
+
+        try {
+            return ResponseEntity.ok(bookingService.getAvailabilityMatrix(fromDate, toDate, uniqueAmenityIds));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/bookings")
     public ResponseEntity<?> createBooking(
             @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody BookingRequest request) {
 
         if (sessionToken == null) {
@@ -142,24 +216,64 @@ public class BookingController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(createErrorResponse("Amenity ID is required"));
             }
-            if (request.getAmenityType() == null) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(createErrorResponse("Amenity type is required"));
-            }
             if (request.getBookingDate() == null) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(createErrorResponse("Booking date is required"));
             }
+            if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(createErrorResponse("Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+            }
+
+            // A retry of a request that already succeeded here is answered from memory without using up admission
+            if (idempotencyKey != null) {
+                BookingIdempotencyService.Result completed = bookingIdempotencyService.findCompleted(
+                        sessionOpt.get().getUserId(),
+                        idempotencyKey,
+                        request.getAmenityId(),
+                        request.getBookingDate(),
+                        request.getTimeSlot());
+                if (completed != null) {
+                    return idempotentResponse(completed);
+                }
+            }
+
+            // Retry storms from one resident are turned away before any booking work
+            long waitNanos = userRateLimiter.tryAcquire(sessionOpt.get().getUserId());
+            if (waitNanos > 0) {
+                return tooManyRequests(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                        "Too many booking attempts, please wait before trying again");
+            }
+
+            // Shed load early instead of letting every request queue on the database
+            if (!concurrencyLimiter.tryAcquire()) {
+                return tooManyRequests(overloadRetryAfterSeconds, "Booking service is busy, please try again shortly");
+            }
+            long startNanos = System.nanoTime();
+            try {
+                if (idempotencyKey != null) {
+                    // A retry gets the original 201 body back without booking again
+                    BookingIdempotencyService.Result result = bookingIdempotencyService.createBooking(
+                            sessionOpt.get().getUserId(),
+                            idempotencyKey,
+                            request.getAmenityId(),
+                            request.getBookingDate(),
+                            request.getTimeSlot());
+                    return idempotentResponse(result);
+                }
 
-            Booking booking = bookingService.createBooking(
-                    request.getAmenityId(),
-                    sessionOpt.get().getUserId(),
-                    request.getAmenityType(),
-                    request.getBookingDate(),
-                    request.getTimeSlot(),
-                    request.getSlotStart(),
-                    request.getSlotEnd());
-            return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+                Booking booking = bookingService.createBooking(
+                        request.getAmenityId(),
+                        sessionOpt.get().getUserId(),
+                        request.getBookingDate(),
+                        request.getTimeSlot());
+                return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+            } finally {
+                concurrencyLimiter.release(System.nanoTime() - startNanos);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse(e.getMessage()));
         } catch (BookingValidationException e) {
             // Validation error - return 409 Conflict with error message
             return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -175,6 +289,104 @@ public class BookingController {
         }
     }
 
+    /**
+     * Books a recurring slot. Occurrences that are already fully booked are listed as
+     * conflicts in the response; the others are booked. 409 if none could be booked.
+     */
+    @PostMapping("/bookings/series")
+    public ResponseEntity<?> createBookingSeries(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @RequestBody BookingSeriesRequest request) {
+
+        if (sessionToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<UserServiceClient.SessionInfo> sessionOpt = userServiceClient.getSessionInfo(sessionToken);
+        if (sessionOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        long waitNanos = userRateLimiter.tryAcquire(sessionOpt.get().getUserId());
+        if (waitNanos > 0) {
+            return tooManyRequests(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                    "Too many booking attempts, please wait before trying again");
+        }
+
+        try {
+            if (request.getAmenityId() == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(createErrorResponse("Amenity ID is required"));
+            }
+            if (request.getStartDate() == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(createErrorResponse("Start date is required"));
+            }
+            if (request.getOccurrences() == null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(createErrorResponse("Occurrences are required"));
+            }
+
+            if (!concurrencyLimiter.tryAcquire()) {
+                return tooManyRequests(overloadRetryAfterSeconds, "Booking service is busy, please try again shortly");
+            }
+            long startNanos = System.nanoTime();
+            try {
+                BookingSeriesResponse series = bookingService.createSeries(
+                        request.getAmenityId(),
+                        sessionOpt.get().getUserId(),
+                        request.getStartDate(),
+                        request.getTimeSlot(),
+                        request.getOccurrences(),
+                        request.getIntervalWeeks());
+                HttpStatus status = series.getCreated().isEmpty() ? HttpStatus.CONFLICT : HttpStatus.CREATED;
+                return ResponseEntity.status(status).body(series);
+            } finally {
+                concurrencyLimiter.release(System.nanoTime() - startNanos);
+            }
+        } catch (InvalidBookingRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (BookingValidationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(createErrorResponse("Slot is already booked"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("An error occurred while creating the booking series: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancels the upcoming occurrences of one of the user's series.
+     */
+    @DeleteMapping("/bookings/series/{seriesId}")
+    public ResponseEntity<Void> cancelBookingSeries(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @PathVariable UUID seriesId) {
+
+        if (sessionToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<UserServiceClient.SessionInfo> sessionOpt = userServiceClient.getSessionInfo(sessionToken);
+        if (sessionOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            bookingService.cancelSeries(seriesId, sessionOpt.get().getUserId());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     @GetMapping("/bookings")
     public ResponseEntity<List<Booking>> getUserBookings(
             @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken) {
@@ -215,9 +427,42 @@ public class BookingController {
     }
 
     // Admin endpoints
+    /**
+     * All bookings, one keyset page at a time; same paging as {@link #searchBookings}.
+     */
     @GetMapping("/admin/bookings")
-    public ResponseEntity<List<BookingResponse>> getAllBookings(
-            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken) {
+    public ResponseEntity<BookingPageResponse> getAllBookings(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return searchBookings(sessionToken, null, null, null, null, null, cursor, limit);
+    }
+
+    /**
+     * One amenity's bookings, one keyset page at a time; same paging as {@link #searchBookings}.
+     */
+    @GetMapping("/admin/bookings/amenity/{amenityId}")
+    public ResponseEntity<BookingPageResponse> getBookingsByAmenity(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @PathVariable Long amenityId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return searchBookings(sessionToken, null, null, amenityId, null, null, cursor, limit);
+    }
+
+    /**
+     * Filtered, keyset-paginated booking list. Pass the returned nextCursor to fetch the following page.
+     */
+    @GetMapping("/admin/bookings/search")
+    public ResponseEntity<BookingPageResponse> searchBookings(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "amenityId", required = false) Long amenityId,
+            @RequestParam(value = "amenityType", required = false) AmenityType amenityType,
+            @RequestParam(value = "userId", required = false) Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
 
         if (sessionToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -228,33 +473,34 @@ public class BookingController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<Booking> bookings = bookingService.getAllBookings();
-        List<BookingResponse> responses = bookings.stream()
-                .map(booking -> {
-                    Optional<UserServiceClient.UserInfo> bookingUserOpt = userServiceClient
-                            .getUserInfo(booking.getUserId());
-                    UserServiceClient.UserInfo bookingUser = bookingUserOpt.orElse(null);
-                    return new BookingResponse(
-                            booking.getId(),
-                            booking.getAmenityId(),
-                            booking.getUserId(),
-                            bookingUser != null ? bookingUser.getUsername() : "Unknown",
-                            bookingUser != null ? bookingUser.getName() : null,
-                            bookingUser != null ? bookingUser.getFlatNo() : null,
-                            bookingUser != null ? bookingUser.getContactNumber() : null,
-                            booking.getSlotStart(),
-                            booking.getSlotEnd(),
-                            booking.getCreatedAt());
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(responses);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        BookingCursor after;
+        try {
+            after = cursor != null && !cursor.isEmpty() ? BookingCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        BookingSearchCriteria criteria = new BookingSearchCriteria(from, to, amenityId, amenityType, userId);
+        List<Booking> bookings = bookingService.searchBookings(criteria, after, limit + 1);
+        boolean hasMore = bookings.size() > limit;
+        List<Booking> page = hasMore ? bookings.subList(0, limit) : bookings;
+
+        String nextCursor = hasMore ? BookingCursor.after(page.get(page.size() - 1)).encode() : null;
+        return ResponseEntity.ok(new BookingPageResponse(toBookingResponses(page), nextCursor));
     }
 
-    @GetMapping("/admin/bookings/amenity/{amenityId}")
-    public ResponseEntity<List<BookingResponse>> getBookingsByAmenity(
+    /**
+     * Streams the full booking history as NDJSON (default) or CSV without buffering it in memory.
+     */
+    @GetMapping("/admin/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
             @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
-            @PathVariable Long amenityId) {
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
 
         if (sessionToken == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -265,29 +511,30 @@ public class BookingController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<Booking> bookings = bookingService.getBookingsByAmenity(amenityId);
-        List<BookingResponse> responses = bookings.stream()
-                .map(booking -> {
-                    Optional<UserServiceClient.UserInfo> bookingUserOpt = userServiceClient
-                            .getUserInfo(booking.getUserId());
-                    UserServiceClient.UserInfo bookingUser = bookingUserOpt.orElse(null);
-                    return new BookingResponse(
-                            booking.getId(),
-                            booking.getAmenityId(),
-                            booking.getUserId(),
-                            bookingUser != null ? bookingUser.getUsername() : "Unknown",
-                            bookingUser != null ? bookingUser.getName() : null,
-                            bookingUser != null ? bookingUser.getFlatNo() : null,
-                            bookingUser != null ? bookingUser.getContactNumber() : null,
-                            booking.getSlotStart(),
-                            booking.getSlotEnd(),
-                            booking.getCreatedAt());
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(responses);
+        BookingExportService.Format exportFormat;
+        MediaType mediaType;
+        if ("csv".equalsIgnoreCase(format)) {
+            exportFormat = BookingExportService.Format.CSV;
+            mediaType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            exportFormat = BookingExportService.Format.NDJSON;
+            mediaType = MediaType.APPLICATION_NDJSON;
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        StreamingResponseBody body = outputStream -> bookingExportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"bookings." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
     }
 
+    /**
+     * Booking totals from the statistics rollup. The booking list itself is served by
+     * /admin/bookings/search.
+     */
     @GetMapping("/admin/stats")
     public ResponseEntity<Map<String, Object>> getAdminStats(
             @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken) {
@@ -301,31 +548,101 @@ public class BookingController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        List<Booking> bookings = bookingService.getAllBookings();
-        List<BookingResponse> responses = bookings.stream()
-                .map(booking -> {
-                    Optional<UserServiceClient.UserInfo> bookingUserOpt = userServiceClient
-                            .getUserInfo(booking.getUserId());
-                    UserServiceClient.UserInfo bookingUser = bookingUserOpt.orElse(null);
-                    return new BookingResponse(
-                            booking.getId(),
-                            booking.getAmenityId(),
-                            booking.getUserId(),
-                            bookingUser != null ? bookingUser.getUsername() : "Unknown",
-                            bookingUser != null ? bookingUser.getName() : null,
-                            bookingUser != null ? bookingUser.getFlatNo() : null,
-                            bookingUser != null ? bookingUser.getContactNumber() : null,
-                            booking.getSlotStart(),
-                            booking.getSlotEnd(),
-                            booking.getCreatedAt());
-                })
-                .collect(Collectors.toList());
-
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalBookings", bookings.size());
-        stats.put("bookings", responses);
-
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(bookingStatsService.getSummary());
+    }
+
+    @GetMapping("/admin/stats/timeseries")
+    public ResponseEntity<?> getAdminStatsTimeSeries(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "bucket", defaultValue = "DAY") BookingStatsService.Bucket bucket,
+            @RequestParam(value = "amenityId", required = false) Long amenityId,
+            @RequestParam(value = "amenityType", required = false) AmenityType amenityType) {
+
+        if (sessionToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<UserServiceClient.SessionInfo> sessionOpt = userServiceClient.getSessionInfo(sessionToken);
+        if (sessionOpt.isEmpty() || !sessionOpt.get().isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_STATS_DAYS) {
+            return ResponseEntity.badRequest().body(
+                    createErrorResponse("Date range must be between 1 and " + MAX_STATS_DAYS + " days"));
+        }
+
+        return ResponseEntity.ok(bookingStatsService.getTimeSeries(from, to, bucket, amenityId, amenityType));
+    }
+
+    @GetMapping("/admin/stats/users")
+    public ResponseEntity<List<Map<String, Object>>> getAdminStatsTopUsers(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        if (sessionToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<UserServiceClient.SessionInfo> sessionOpt = userServiceClient.getSessionInfo(sessionToken);
+        if (sessionOpt.isEmpty() || !sessionOpt.get().isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        List<BookingUserStats> topUsers = bookingStatsService.getTopUsers(limit);
+        Map<Long, UserServiceClient.UserInfo> users = userServiceClient.getUserInfos(
+                topUsers.stream().map(BookingUserStats::getUserId).collect(Collectors.toSet()));
+
+        List<Map<String, Object>> response = new ArrayList<>(topUsers.size());
+        for (BookingUserStats stats : topUsers) {
+            UserServiceClient.UserInfo user = users.get(stats.getUserId());
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("userId", stats.getUserId());
+            entry.put("userName", user != null ? user.getUsername() : "Unknown");
+            entry.put("flatNo", user != null ? user.getFlatNo() : null);
+            entry.put("bookingCount", stats.getBookingCount());
+            response.add(entry);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Helper method to enrich bookings with user details using one batched user-service lookup
+     */
+    private List<BookingResponse> toBookingResponses(List<Booking> bookings) {
+        Map<Long, UserServiceClient.UserInfo> users = userServiceClient.getUserInfos(
+                bookings.stream().map(Booking::getUserId).collect(Collectors.toSet()));
+
+        List<BookingResponse> responses = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            UserServiceClient.UserInfo bookingUser = users.get(booking.getUserId());
+            responses.add(new BookingResponse(
+                    booking.getId(),
+                    booking.getAmenityId(),
+                    booking.getUserId(),
+                    bookingUser != null ? bookingUser.getUsername() : "Unknown",
+                    bookingUser != null ? bookingUser.getName() : null,
+                    bookingUser != null ? bookingUser.getFlatNo() : null,
+                    bookingUser != null ? bookingUser.getContactNumber() : null,
+                    booking.getSlotStart(),
+                    booking.getSlotEnd(),
+                    booking.getCreatedAt()));
+        }
+        return responses;
+    }
+
+    // The original 201 body, already serialized
+    private ResponseEntity<String> idempotentResponse(BookingIdempotencyService.Result result) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotent-Replayed", Boolean.toString(result.isReplayed()))
+                .body(result.getBody());
     }
 
     /**
@@ -336,4 +653,11 @@ public class BookingController {
         errorResponse.put("error", message);
         return errorResponse;
     }
+
+    // 429 telling the client when it may try again
+    private ResponseEntity<Map<String, String>> tooManyRequests(long retryAfterSeconds, String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(createErrorResponse(message));
+    }
 }
@@ -0,0 +1,34 @@
+package com.apartmentcommunity.booking.dto;
+
+import java.util.List;
+
+public class BookingPageResponse {
+    private List<BookingResponse> items;
+    private String nextCursor;
+
+    public BookingPageResponse() {}
+
+    public BookingPageResponse(List<BookingResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BookingResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BookingResponse> items) {
+        this.items = items;
+    }
+
+    /**
+     * Opaque token for the next page, or null when this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,66 @@
+package com.apartmentcommunity.booking.dto;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+import java.time.LocalDate;
+
+/**
+ * Optional filters for the admin booking search. Null fields are not applied.
+ */
+public class BookingSearchCriteria {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Long amenityId;
+    private AmenityType amenityType;
+    private Long userId;
+
+    public BookingSearchCriteria() {}
+
+    public BookingSearchCriteria(LocalDate fromDate, LocalDate toDate, Long amenityId,
+                                 AmenityType amenityType, Long userId) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.amenityId = amenityId;
+        this.amenityType = amenityType;
+        this.userId = userId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public Long getAmenityId() {
+        return amenityId;
+    }
+
+    public void setAmenityId(Long amenityId) {
+        this.amenityId = amenityId;
+    }
+
+    public AmenityType getAmenityType() {
+        return amenityType;
+    }
+
+    public void setAmenityType(AmenityType amenityType) {
+        this.amenityType = amenityType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+}
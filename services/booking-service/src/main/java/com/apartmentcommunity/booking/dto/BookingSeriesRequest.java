@@ -0,0 +1,56 @@
+package com.apartmentcommunity.booking.dto;
+
+import java.time.LocalDate;
+
+public class BookingSeriesRequest {
+    private Long amenityId;
+    private LocalDate startDate;
+    private String timeSlot;
+    private Integer occurrences;
+    private int intervalWeeks = 1;
+
+    public BookingSeriesRequest() {}
+
+    public Long getAmenityId() {
+        return amenityId;
+    }
+
+    public void setAmenityId(Long amenityId) {
+        this.amenityId = amenityId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public void setTimeSlot(String timeSlot) {
+        this.timeSlot = timeSlot;
+    }
+
+    public Integer getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(Integer occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    /**
+     * Weeks between occurrences, 1 (weekly) unless given.
+     */
+    public int getIntervalWeeks() {
+        return intervalWeeks;
+    }
+
+    public void setIntervalWeeks(int intervalWeeks) {
+        this.intervalWeeks = intervalWeeks;
+    }
+}
@@ -0,0 +1,51 @@
+package com.apartmentcommunity.booking.dto;
+
+import com.apartmentcommunity.booking.model.Booking;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public class BookingSeriesResponse {
+    private UUID seriesId;
+    private List<Booking> created;
+    private List<LocalDate> conflicts;
+
+    public BookingSeriesResponse() {}
+
+    public BookingSeriesResponse(UUID seriesId, List<Booking> created, List<LocalDate> conflicts) {
+        this.seriesId = seriesId;
+        this.created = created;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Id to cancel the series with, or null when no occurrence could be booked.
+     */
+    public UUID getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(UUID seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public List<Booking> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<Booking> created) {
+        this.created = created;
+    }
+
+    /**
+     * Dates that were already fully booked and were skipped.
+     */
+    public List<LocalDate> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<LocalDate> conflicts) {
+        this.conflicts = conflicts;
+    }
+}
@@ -0,0 +1,26 @@
+package com.apartmentcommunity.booking.event;
+
+import com.apartmentcommunity.booking.model.Booking;
+
+/**
+ * Published inside the booking transaction whenever a booking is created (delta +1)
+ * or cancelled (delta -1). Statistics rollups are updated before commit; in-memory
+ * views listen for it after commit.
+ */
+public class BookingChangedEvent {
+    private final Booking booking;
+    private final int delta;
+
+    public BookingChangedEvent(Booking booking, int delta) {
+        this.booking = booking;
+        this.delta = delta;
+    }
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+}
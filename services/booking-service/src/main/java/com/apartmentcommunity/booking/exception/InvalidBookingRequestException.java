@@ -0,0 +1,8 @@
+package com.apartmentcommunity.booking.exception;
+
+// A request the client has to change before retrying (400), unlike a capacity conflict (409)
+public class InvalidBookingRequestException extends RuntimeException {
+    public InvalidBookingRequestException(String message) {
+        super(message);
+    }
+}
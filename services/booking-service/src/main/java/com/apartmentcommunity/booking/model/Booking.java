@@ -3,12 +3,15 @@ package com.apartmentcommunity.booking.model;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "bookings")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (see V12) so that inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "amenity_id", nullable = false)
@@ -27,6 +30,10 @@ public class Booking {
     @Column(name = "time_slot", length = 20)
     private String timeSlot;
 
+    // Start of timeSlot as a SlotCodec ordinal; null for day-based bookings
+    @Column(name = "slot_ordinal")
+    private Short slotOrdinal;
+
     @Column(name = "slot_start", nullable = false)
     private LocalDateTime slotStart;
 
@@ -36,6 +43,10 @@ public class Booking {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Shared by the occurrences of a recurring booking; null for single bookings
+    @Column(name = "series_id")
+    private UUID seriesId;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -56,6 +67,7 @@ public class Booking {
         this.timeSlot = (slotStart != null && slotEnd != null) ? String.format("%02d:%02d-%02d:%02d",
                 slotStart.toLocalTime().getHour(), slotStart.toLocalTime().getMinute(),
                 slotEnd.toLocalTime().getHour(), slotEnd.toLocalTime().getMinute()) : null;
+        this.slotOrdinal = toOrdinal(this.timeSlot);
     }
 
     public Booking(Long amenityId, Long userId, AmenityType amenityType, LocalDate bookingDate,
@@ -65,6 +77,7 @@ public class Booking {
         this.amenityType = amenityType;
         this.bookingDate = bookingDate;
         this.timeSlot = timeSlot;
+        this.slotOrdinal = toOrdinal(timeSlot);
         this.slotStart = slotStart;
         this.slotEnd = slotEnd;
     }
@@ -140,5 +153,23 @@ public class Booking {
 
     public void setTimeSlot(String timeSlot) {
         this.timeSlot = timeSlot;
+        this.slotOrdinal = toOrdinal(timeSlot);
+    }
+
+    public Short getSlotOrdinal() {
+        return slotOrdinal;
+    }
+
+    public UUID getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(UUID seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    private static Short toOrdinal(String timeSlot) {
+        int ordinal = SlotCodec.ordinal(timeSlot);
+        return ordinal == SlotCodec.INVALID ? null : (short) ordinal;
     }
 }
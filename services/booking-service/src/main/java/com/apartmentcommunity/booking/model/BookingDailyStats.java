@@ -0,0 +1,76 @@
+package com.apartmentcommunity.booking.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Number of bookings for one amenity, day and time slot. Day-based amenities have a single
+ * row per day with an empty time slot, as in slot_capacity.
+ */
+@Entity
+@Table(name = "booking_daily_stats")
+@IdClass(BookingDailyStatsId.class)
+public class BookingDailyStats {
+    @Id
+    @Column(name = "amenity_id", nullable = false)
+    private Long amenityId;
+
+    @Id
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+
+    @Id
+    @Column(name = "time_slot", nullable = false, length = 20)
+    private String timeSlot;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "amenity_type", nullable = false)
+    private AmenityType amenityType;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+
+    // Constructors
+    public BookingDailyStats() {}
+
+    // Getters and Setters
+    public Long getAmenityId() {
+        return amenityId;
+    }
+
+    public void setAmenityId(Long amenityId) {
+        this.amenityId = amenityId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public void setTimeSlot(String timeSlot) {
+        this.timeSlot = timeSlot;
+    }
+
+    public AmenityType getAmenityType() {
+        return amenityType;
+    }
+
+    public void setAmenityType(AmenityType amenityType) {
+        this.amenityType = amenityType;
+    }
+
+    public Long getBookingCount() {
+        return bookingCount;
+    }
+
+    public void setBookingCount(Long bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+}
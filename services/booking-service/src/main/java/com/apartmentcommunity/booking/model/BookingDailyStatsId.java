@@ -0,0 +1,50 @@
+package com.apartmentcommunity.booking.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class BookingDailyStatsId implements Serializable {
+    private Long amenityId;
+    private LocalDate bookingDate;
+    private String timeSlot;
+
+    public BookingDailyStatsId() {}
+
+    public BookingDailyStatsId(Long amenityId, LocalDate bookingDate, String timeSlot) {
+        this.amenityId = amenityId;
+        this.bookingDate = bookingDate;
+        this.timeSlot = timeSlot;
+    }
+
+    public Long getAmenityId() {
+        return amenityId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookingDailyStatsId)) {
+            return false;
+        }
+        BookingDailyStatsId that = (BookingDailyStatsId) o;
+        return Objects.equals(amenityId, that.amenityId)
+                && Objects.equals(bookingDate, that.bookingDate)
+                && Objects.equals(timeSlot, that.timeSlot);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(amenityId, bookingDate, timeSlot);
+    }
+}
@@ -0,0 +1,37 @@
+package com.apartmentcommunity.booking.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Number of bookings currently held by one user.
+ */
+@Entity
+@Table(name = "booking_user_stats")
+public class BookingUserStats {
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+
+    // Constructors
+    public BookingUserStats() {}
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getBookingCount() {
+        return bookingCount;
+    }
+
+    public void setBookingCount(Long bookingCount) {
+        this.bookingCount = bookingCount;
+    }
+}
@@ -0,0 +1,34 @@
+package com.apartmentcommunity.booking.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class IdempotencyKeyId implements Serializable {
+    private Long userId;
+    private String idempotencyKey;
+
+    public IdempotencyKeyId() {}
+
+    public IdempotencyKeyId(Long userId, String idempotencyKey) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotencyKeyId)) {
+            return false;
+        }
+        IdempotencyKeyId that = (IdempotencyKeyId) o;
+        return Objects.equals(userId, that.userId)
+                && Objects.equals(idempotencyKey, that.idempotencyKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, idempotencyKey);
+    }
+}
@@ -0,0 +1,152 @@
+package com.apartmentcommunity.booking.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A message waiting to be published to RabbitMQ. Rows are inserted in the transaction that
+ * produced the event and marked dispatched once the broker has confirmed them.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    // Allocated 50 at a time, so the events of a booking series are inserted in one batch.
+    // Each replica draws from its own block, so ids do not follow creation order across replicas.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_id_seq")
+    @SequenceGenerator(name = "outbox_events_id_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "exchange", nullable = false, length = 100)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false, length = 100)
+    private String routingKey;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "trace_parent", length = 55)
+    private String traceParent;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+
+    // Constructors
+    public OutboxEvent() {}
+
+    public OutboxEvent(String exchange, String routingKey, String payload) {
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.payload = payload;
+    }
+
+    public OutboxEvent(String exchange, String routingKey, String payload, String traceParent) {
+        this(exchange, routingKey, payload);
+        this.traceParent = traceParent;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(String exchange) {
+        this.exchange = exchange;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public void setRoutingKey(String routingKey) {
+        this.routingKey = routingKey;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getDispatchedAt() {
+        return dispatchedAt;
+    }
+
+    public void setDispatchedAt(LocalDateTime dispatchedAt) {
+        this.dispatchedAt = dispatchedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getTraceParent() {
+        return traceParent;
+    }
+
+    public void setTraceParent(String traceParent) {
+        this.traceParent = traceParent;
+    }
+}
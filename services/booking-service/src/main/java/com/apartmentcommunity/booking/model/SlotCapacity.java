@@ -0,0 +1,76 @@
+package com.apartmentcommunity.booking.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Number of bookings held against one capacity unit: a time slot for slot-based
+ * amenities, or a whole day (empty time slot) for day-based ones.
+ */
+@Entity
+@Table(name = "slot_capacity")
+@IdClass(SlotCapacityId.class)
+public class SlotCapacity {
+    @Id
+    @Column(name = "amenity_id", nullable = false)
+    private Long amenityId;
+
+    @Id
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+
+    @Id
+    @Column(name = "time_slot", nullable = false, length = 20)
+    private String timeSlot;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "amenity_type", nullable = false)
+    private AmenityType amenityType;
+
+    @Column(name = "booked_count", nullable = false)
+    private Integer bookedCount;
+
+    // Constructors
+    public SlotCapacity() {}
+
+    // Getters and Setters
+    public Long getAmenityId() {
+        return amenityId;
+    }
+
+    public void setAmenityId(Long amenityId) {
+        this.amenityId = amenityId;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+
+    public String getTimeSlot() {
+        return timeSlot;
+    }
+
+    public void setTimeSlot(String timeSlot) {
+        this.timeSlot = timeSlot;
+    }
+
+    public AmenityType getAmenityType() {
+        return amenityType;
+    }
+
+    public void setAmenityType(AmenityType amenityType) {
+        this.amenityType = amenityType;
+    }
+
+    public Integer getBookedCount() {
+        return bookedCount;
+    }
+
+    public void setBookedCount(Integer bookedCount) {
+        this.bookedCount = bookedCount;
+    }
+}
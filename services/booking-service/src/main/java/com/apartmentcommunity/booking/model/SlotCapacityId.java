@@ -0,0 +1,38 @@
+package com.apartmentcommunity.booking.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class SlotCapacityId implements Serializable {
+    private Long amenityId;
+    private LocalDate bookingDate;
+    private String timeSlot;
+
+    public SlotCapacityId() {}
+
+    public SlotCapacityId(Long amenityId, LocalDate bookingDate, String timeSlot) {
+        this.amenityId = amenityId;
+        this.bookingDate = bookingDate;
+        this.timeSlot = timeSlot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SlotCapacityId)) {
+            return false;
+        }
+        SlotCapacityId that = (SlotCapacityId) o;
+        return Objects.equals(amenityId, that.amenityId)
+                && Objects.equals(bookingDate, that.bookingDate)
+                && Objects.equals(timeSlot, that.timeSlot);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(amenityId, bookingDate, timeSlot);
+    }
+}
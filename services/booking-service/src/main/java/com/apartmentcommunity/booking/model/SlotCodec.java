@@ -0,0 +1,104 @@
+package com.apartmentcommunity.booking.model;
+
+/**
+ * Parsing and encoding of "HH:mm-HH:mm" time slots without allocating.
+ *
+ * A slot's ordinal is its start time as a 15-minute index into the day (0-95). It is
+ * stored next to the time slot string in bookings.slot_ordinal so that occupancy can
+ * be counted into plain int arrays without parsing strings.
+ */
+public final class SlotCodec {
+    public static final int MINUTES_PER_ORDINAL = 15;
+    public static final int ORDINALS_PER_DAY = 24 * 60 / MINUTES_PER_ORDINAL;
+    public static final int INVALID = -1;
+
+    private static final int TIME_SLOT_LENGTH = 11;
+    private static final String[] LABELS = new String[ORDINALS_PER_DAY];
+
+    static {
+        for (int ordinal = 0; ordinal < ORDINALS_PER_DAY; ordinal++) {
+            LABELS[ordinal] = formatTime(ordinal * MINUTES_PER_ORDINAL);
+        }
+    }
+
+    private SlotCodec() {
+    }
+
+    /**
+     * True if the time slot is two valid 24h "HH:mm" times separated by a dash.
+     */
+    public static boolean isValid(CharSequence timeSlot) {
+        return startMinute(timeSlot) != INVALID && endMinute(timeSlot) != INVALID;
+    }
+
+    /**
+     * Minute of the day the slot starts at, or {@link #INVALID}.
+     */
+    public static int startMinute(CharSequence timeSlot) {
+        if (timeSlot == null || timeSlot.length() != TIME_SLOT_LENGTH || timeSlot.charAt(5) != '-') {
+            return INVALID;
+        }
+        return parseTime(timeSlot, 0);
+    }
+
+    /**
+     * Minute of the day the slot ends at, or {@link #INVALID}.
+     */
+    public static int endMinute(CharSequence timeSlot) {
+        if (timeSlot == null || timeSlot.length() != TIME_SLOT_LENGTH || timeSlot.charAt(5) != '-') {
+            return INVALID;
+        }
+        return parseTime(timeSlot, 6);
+    }
+
+    /**
+     * Ordinal of the slot's start time, or {@link #INVALID} for null or malformed slots.
+     */
+    public static int ordinal(CharSequence timeSlot) {
+        int start = startMinute(timeSlot);
+        return start == INVALID ? INVALID : start / MINUTES_PER_ORDINAL;
+    }
+
+    public static int ordinalOf(int minuteOfDay) {
+        return minuteOfDay / MINUTES_PER_ORDINAL;
+    }
+
+    /**
+     * The ordinal's start time as "HH:mm"; the strings are shared, not built per call.
+     */
+    public static String label(int ordinal) {
+        return LABELS[ordinal];
+    }
+
+    public static String format(int startMinute, int endMinute) {
+        return formatTime(startMinute) + "-" + formatTime(endMinute);
+    }
+
+    private static int parseTime(CharSequence value, int offset) {
+        int h1 = digit(value.charAt(offset));
+        int h2 = digit(value.charAt(offset + 1));
+        int m1 = digit(value.charAt(offset + 3));
+        int m2 = digit(value.charAt(offset + 4));
+        if ((h1 | h2 | m1 | m2) < 0 || value.charAt(offset + 2) != ':') {
+            return INVALID;
+        }
+        int hour = h1 * 10 + h2;
+        int minute = m1 * 10 + m2;
+        if (hour > 23 || minute > 59) {
+            return INVALID;
+        }
+        return hour * 60 + minute;
+    }
+
+    private static int digit(char c) {
+        return c >= '0' && c <= '9' ? c - '0' : INVALID;
+    }
+
+    private static String formatTime(int minuteOfDay) {
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        return new String(new char[] {
+                (char) ('0' + hour / 10), (char) ('0' + hour % 10), ':',
+                (char) ('0' + minute / 10), (char) ('0' + minute % 10)});
+    }
+}
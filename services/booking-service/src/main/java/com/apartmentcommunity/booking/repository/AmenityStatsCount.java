@@ -0,0 +1,14 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+
+/**
+ * Projection of the rolled-up number of bookings per amenity over all days.
+ */
+public interface AmenityStatsCount {
+    Long getAmenityId();
+
+    AmenityType getAmenityType();
+
+    Long getBookingCount();
+}
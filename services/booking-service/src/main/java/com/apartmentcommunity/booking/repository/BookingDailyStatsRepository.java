@@ -0,0 +1,53 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.BookingDailyStats;
+import com.apartmentcommunity.booking.model.BookingDailyStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingDailyStatsRepository extends JpaRepository<BookingDailyStats, BookingDailyStatsId> {
+    // Applies the summed deltas of one transaction in a single statement; the lists are
+    // parallel, one entry per row. Rows are locked in key order so two transactions touching
+    // the same rows cannot deadlock.
+    @Modifying
+    @Query(value = "INSERT INTO booking_daily_stats AS s " +
+            "(amenity_id, booking_date, time_slot, amenity_type, booking_count) " +
+            "SELECT d.amenity_id, d.booking_date, d.time_slot, d.amenity_type, d.delta " +
+            "FROM unnest(ARRAY[:amenityIds], ARRAY[:bookingDates], ARRAY[:timeSlots], ARRAY[:amenityTypes], " +
+            "ARRAY[:deltas]) AS d(amenity_id, booking_date, time_slot, amenity_type, delta) " +
+            "ORDER BY d.amenity_id, d.booking_date, d.time_slot " +
+            "ON CONFLICT (amenity_id, booking_date, time_slot) " +
+            "DO UPDATE SET booking_count = s.booking_count + EXCLUDED.booking_count", nativeQuery = true)
+    int incrementAll(
+        @Param("amenityIds") List<Long> amenityIds,
+        @Param("bookingDates") List<LocalDate> bookingDates,
+        @Param("timeSlots") List<String> timeSlots,
+        @Param("amenityTypes") List<String> amenityTypes,
+        @Param("deltas") List<Integer> deltas
+    );
+
+    @Query("SELECT s.amenityId AS amenityId, s.amenityType AS amenityType, SUM(s.bookingCount) AS bookingCount " +
+           "FROM BookingDailyStats s GROUP BY s.amenityId, s.amenityType")
+    List<AmenityStatsCount> countByAmenity();
+
+    @Query("SELECT s.amenityId AS amenityId, s.amenityType AS amenityType, SUM(s.bookingCount) AS bookingCount " +
+           "FROM BookingDailyStats s WHERE s.amenityId IN :amenityIds GROUP BY s.amenityId, s.amenityType")
+    List<AmenityStatsCount> countByAmenity(@Param("amenityIds") Collection<Long> amenityIds);
+
+    @Query("SELECT s.amenityId AS amenityId, s.amenityType AS amenityType, s.bookingDate AS bookingDate, " +
+           "SUM(s.bookingCount) AS bookingCount FROM BookingDailyStats s " +
+           "WHERE s.bookingDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY s.amenityId, s.amenityType, s.bookingDate ORDER BY s.bookingDate")
+    List<DailyStatsCount> countByDayBetween(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+}
@@ -2,57 +2,61 @@ package com.apartmentcommunity.booking.repository;
 
 import com.apartmentcommunity.booking.model.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
     List<Booking> findByUserId(Long userId);
+
+    List<Booking> findBySeriesIdAndUserIdAndBookingDateGreaterThanEqual(UUID seriesId, Long userId, LocalDate fromDate);
     
-    @Query("SELECT b FROM Booking b WHERE b.amenityId = :amenityId " +
-           "AND b.slotStart < :slotEnd AND b.slotEnd > :slotStart")
-    List<Booking> findOverlappingBookings(
-        @Param("amenityId") Long amenityId,
-        @Param("slotStart") LocalDateTime slotStart,
-        @Param("slotEnd") LocalDateTime slotEnd
-    );
-    
-    @Query("SELECT b FROM Booking b WHERE b.amenityId = :amenityId " +
-           "AND b.slotStart >= :dateStart AND b.slotStart < :dateEnd")
-    List<Booking> findBookingsByAmenityAndDate(
-        @Param("amenityId") Long amenityId,
-        @Param("dateStart") LocalDateTime dateStart,
-        @Param("dateEnd") LocalDateTime dateEnd
-    );
-    
-    List<Booking> findByAmenityId(Long amenityId);
+    // Full history for exports; must be consumed inside a transaction so the driver uses a cursor
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT b FROM Booking b ORDER BY b.slotStart, b.id")
+    Stream<Booking> streamAllOrderBySlotStart();
 
-    // Count bookings for slot-based amenities (GYM, TENNIS, SWIMMING)
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.amenityId = :amenityId " +
-           "AND b.bookingDate = :bookingDate AND b.timeSlot = :timeSlot")
-    long countByAmenityIdAndBookingDateAndTimeSlot(
-        @Param("amenityId") Long amenityId,
-        @Param("bookingDate") LocalDate bookingDate,
-        @Param("timeSlot") String timeSlot
+    // Booking counts per slot for every amenity in a date range (occupancy index warm-up)
+    @Query("SELECT b.amenityId AS amenityId, b.amenityType AS amenityType, b.bookingDate AS bookingDate, " +
+           "b.slotOrdinal AS slotOrdinal, COUNT(b) AS bookingCount FROM Booking b " +
+           "WHERE b.bookingDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY b.amenityId, b.amenityType, b.bookingDate, b.slotOrdinal")
+    List<SlotCount> countSlotsBetween(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
     );
 
-    // Count bookings for day-based amenities (HALL)
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.amenityId = :amenityId " +
-           "AND b.bookingDate = :bookingDate")
-    long countByAmenityIdAndBookingDate(
-        @Param("amenityId") Long amenityId,
-        @Param("bookingDate") LocalDate bookingDate
+    // Booking counts per slot for selected amenities in a date range (availability matrix)
+    @Query("SELECT b.amenityId AS amenityId, b.amenityType AS amenityType, b.bookingDate AS bookingDate, " +
+           "b.slotOrdinal AS slotOrdinal, COUNT(b) AS bookingCount FROM Booking b " +
+           "WHERE b.amenityId IN :amenityIds AND b.bookingDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY b.amenityId, b.amenityType, b.bookingDate, b.slotOrdinal")
+    List<SlotCount> countSlotsForAmenitiesBetween(
+        @Param("amenityIds") Collection<Long> amenityIds,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
     );
 
-    // Count bookings for BBQ (max 4 per day)
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.amenityId = :amenityId " +
-           "AND b.bookingDate = :bookingDate")
-    long countByAmenityIdAndBookingDateForBBQ(
+    // Booking counts per slot for one amenity and date (dates outside the occupancy window)
+    @Query("SELECT b.amenityId AS amenityId, b.amenityType AS amenityType, b.bookingDate AS bookingDate, " +
+           "b.slotOrdinal AS slotOrdinal, COUNT(b) AS bookingCount FROM Booking b " +
+           "WHERE b.amenityId = :amenityId AND b.bookingDate = :bookingDate " +
+           "GROUP BY b.amenityId, b.amenityType, b.bookingDate, b.slotOrdinal")
+    List<SlotCount> countSlotsForAmenityAndDate(
         @Param("amenityId") Long amenityId,
         @Param("bookingDate") LocalDate bookingDate
     );
@@ -0,0 +1,15 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.dto.BookingSearchCriteria;
+import com.apartmentcommunity.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSearchRepository {
+    /**
+     * Returns up to {@code limit} bookings matching the criteria, ordered by (slotStart, id) and
+     * strictly after the given keyset position. Pass nulls for the position to start at the beginning.
+     */
+    List<Booking> search(BookingSearchCriteria criteria, LocalDateTime afterSlotStart, Long afterId, int limit);
+}
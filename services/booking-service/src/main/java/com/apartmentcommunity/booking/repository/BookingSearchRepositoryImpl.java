@@ -0,0 +1,62 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.dto.BookingSearchCriteria;
+import com.apartmentcommunity.booking.model.Booking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> search(BookingSearchCriteria criteria, LocalDateTime afterSlotStart, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Path<LocalDateTime> slotStart = booking.get("slotStart");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getFromDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(slotStart, criteria.getFromDate().atStartOfDay()));
+        }
+        if (criteria.getToDate() != null) {
+            predicates.add(cb.lessThan(slotStart, criteria.getToDate().plusDays(1).atStartOfDay()));
+        }
+        if (criteria.getAmenityId() != null) {
+            predicates.add(cb.equal(booking.get("amenityId"), criteria.getAmenityId()));
+        }
+        if (criteria.getAmenityType() != null) {
+            predicates.add(cb.equal(booking.get("amenityType"), criteria.getAmenityType()));
+        }
+        if (criteria.getUserId() != null) {
+            predicates.add(cb.equal(booking.get("userId"), criteria.getUserId()));
+        }
+        if (afterSlotStart != null && afterId != null) {
+            // (slot_start, id) > (:afterSlotStart, :afterId)
+            predicates.add(cb.or(
+                    cb.greaterThan(slotStart, afterSlotStart),
+                    cb.and(
+                            cb.equal(slotStart, afterSlotStart),
+                            cb.greaterThan(id, afterId))));
+        }
+
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(slotStart), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,28 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.BookingUserStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookingUserStatsRepository extends JpaRepository<BookingUserStats, Long> {
+    // Applies the summed deltas of one transaction in a single statement, locking rows in user order
+    @Modifying
+    @Query(value = "INSERT INTO booking_user_stats AS s (user_id, booking_count) " +
+            "SELECT d.user_id, d.delta FROM unnest(ARRAY[:userIds], ARRAY[:deltas]) AS d(user_id, delta) " +
+            "ORDER BY d.user_id " +
+            "ON CONFLICT (user_id) DO UPDATE SET booking_count = s.booking_count + EXCLUDED.booking_count",
+            nativeQuery = true)
+    int incrementAll(@Param("userIds") List<Long> userIds, @Param("deltas") List<Integer> deltas);
+
+    @Query("SELECT s FROM BookingUserStats s WHERE s.bookingCount > 0 ORDER BY s.bookingCount DESC, s.userId")
+    List<BookingUserStats> findTopUsers(Pageable pageable);
+
+    long countByBookingCountGreaterThan(long bookingCount);
+}
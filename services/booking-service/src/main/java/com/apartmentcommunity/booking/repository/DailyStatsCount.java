@@ -0,0 +1,18 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the rolled-up number of bookings per amenity and day.
+ */
+public interface DailyStatsCount {
+    Long getAmenityId();
+
+    AmenityType getAmenityType();
+
+    LocalDate getBookingDate();
+
+    Long getBookingCount();
+}
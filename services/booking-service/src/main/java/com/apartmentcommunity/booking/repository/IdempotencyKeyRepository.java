@@ -0,0 +1,59 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.IdempotencyKey;
+import com.apartmentcommunity.booking.model.IdempotencyKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+    // Inserts the key, or takes over a row that has expired but was not purged yet. If another
+    // transaction holds the key, Postgres waits for it to finish before deciding, so a
+    // concurrent duplicate never runs alongside the first request.
+    String CLAIM_SQL = "INSERT INTO idempotency_keys AS k " +
+            "(user_id, idempotency_key, request_hash, response_body, created_at) " +
+            "VALUES (:userId, :key, :requestHash, NULL, :now) " +
+            "ON CONFLICT (user_id, idempotency_key) " +
+            "DO UPDATE SET request_hash = :requestHash, response_body = NULL, created_at = :now " +
+            "WHERE k.created_at < :expiredBefore";
+
+    /**
+     * @return 1 if the key was claimed, 0 if it already holds a live response
+     */
+    @Modifying
+    @Query(value = CLAIM_SQL, nativeQuery = true)
+    int claim(
+        @Param("userId") Long userId,
+        @Param("key") String key,
+        @Param("requestHash") String requestHash,
+        @Param("now") LocalDateTime now,
+        @Param("expiredBefore") LocalDateTime expiredBefore
+    );
+
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET response_body = :body " +
+            "WHERE user_id = :userId AND idempotency_key = :key", nativeQuery = true)
+    int complete(@Param("userId") Long userId, @Param("key") String key, @Param("body") String body);
+
+    /**
+     * The key's row if it was claimed after {@code expiredBefore}; its response is null while
+     * the request that claimed it is still running.
+     */
+    @Query("SELECT k FROM IdempotencyKey k " +
+           "WHERE k.userId = :userId AND k.idempotencyKey = :key AND k.createdAt >= :expiredBefore")
+    Optional<IdempotencyKey> findLive(
+        @Param("userId") Long userId,
+        @Param("key") String key,
+        @Param("expiredBefore") LocalDateTime expiredBefore
+    );
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
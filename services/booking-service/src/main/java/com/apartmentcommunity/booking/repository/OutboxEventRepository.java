@@ -0,0 +1,28 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Claims due rows for this relay; rows locked by another replica are skipped, not waited on.
+    // Ordered by creation time: ids come from per-replica blocks of the pooled sequence, so a
+    // cancellation written on one replica can have a lower id than the create it follows.
+    // The id only orders events written together, such as those of one booking series.
+    @Query(value = "SELECT * FROM outbox_events WHERE dispatched_at IS NULL AND next_attempt_at <= :now " +
+            "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+
+    long countByDispatchedAtIsNull();
+}
@@ -0,0 +1,89 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.SlotCapacity;
+import com.apartmentcommunity.booking.model.SlotCapacityId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SlotCapacityRepository extends JpaRepository<SlotCapacity, SlotCapacityId> {
+    // Takes one unit of capacity in a single statement. The counter row is created on first use;
+    // afterwards the conditional update only succeeds while booked_count is below capacity.
+    // The row lock is held until commit, so concurrent bookers of the same slot serialize here.
+    String RESERVE_SQL = "INSERT INTO slot_capacity AS sc " +
+            "(amenity_id, booking_date, time_slot, amenity_type, booked_count) " +
+            "VALUES (:amenityId, :bookingDate, :timeSlot, :amenityType, 1) " +
+            "ON CONFLICT (amenity_id, booking_date, time_slot) " +
+            "DO UPDATE SET booked_count = sc.booked_count + 1 " +
+            "WHERE sc.booked_count < :capacity";
+
+    String RELEASE_SQL = "UPDATE slot_capacity SET booked_count = booked_count - 1 " +
+            "WHERE amenity_id = :amenityId AND booking_date = :bookingDate " +
+            "AND time_slot = :timeSlot AND booked_count > 0";
+
+    // RESERVE_SQL for many dates of the same slot in one statement. Dates are locked in order so
+    // two overlapping series cannot deadlock; the reserved ones come back as epoch days, which
+    // maps to the same Java type whatever the driver does with DATE.
+    String RESERVE_ALL_SQL = "INSERT INTO slot_capacity AS sc " +
+            "(amenity_id, booking_date, time_slot, amenity_type, booked_count) " +
+            "SELECT :amenityId, d.booking_date, :timeSlot, :amenityType, 1 " +
+            "FROM unnest(ARRAY[:bookingDates]) AS d(booking_date) ORDER BY d.booking_date " +
+            "ON CONFLICT (amenity_id, booking_date, time_slot) " +
+            "DO UPDATE SET booked_count = sc.booked_count + 1 " +
+            "WHERE sc.booked_count < :capacity " +
+            "RETURNING sc.booking_date - DATE '1970-01-01'";
+
+    String RELEASE_ALL_SQL = "UPDATE slot_capacity SET booked_count = booked_count - 1 " +
+            "WHERE amenity_id = :amenityId AND booking_date IN (:bookingDates) " +
+            "AND time_slot = :timeSlot AND booked_count > 0";
+
+    /**
+     * @return 1 if a unit was reserved, 0 if the slot is already at capacity
+     */
+    @Modifying
+    @Query(value = RESERVE_SQL, nativeQuery = true)
+    int reserve(
+        @Param("amenityId") Long amenityId,
+        @Param("bookingDate") LocalDate bookingDate,
+        @Param("timeSlot") String timeSlot,
+        @Param("amenityType") String amenityType,
+        @Param("capacity") int capacity
+    );
+
+    @Modifying
+    @Query(value = RELEASE_SQL, nativeQuery = true)
+    int release(
+        @Param("amenityId") Long amenityId,
+        @Param("bookingDate") LocalDate bookingDate,
+        @Param("timeSlot") String timeSlot
+    );
+
+    /**
+     * Reserves one unit on each of the dates.
+     *
+     * @return the dates that were reserved, as epoch days; the others are at capacity
+     */
+    @Query(value = RESERVE_ALL_SQL, nativeQuery = true)
+    List<Number> reserveAll(
+        @Param("amenityId") Long amenityId,
+        @Param("bookingDates") Collection<LocalDate> bookingDates,
+        @Param("timeSlot") String timeSlot,
+        @Param("amenityType") String amenityType,
+        @Param("capacity") int capacity
+    );
+
+    @Modifying
+    @Query(value = RELEASE_ALL_SQL, nativeQuery = true)
+    int releaseAll(
+        @Param("amenityId") Long amenityId,
+        @Param("bookingDates") Collection<LocalDate> bookingDates,
+        @Param("timeSlot") String timeSlot
+    );
+}
@@ -0,0 +1,21 @@
+package com.apartmentcommunity.booking.repository;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the number of bookings per amenity, date and time slot. The slot is
+ * given as its SlotCodec ordinal and is null for day-based bookings.
+ */
+public interface SlotCount {
+    Long getAmenityId();
+
+    AmenityType getAmenityType();
+
+    LocalDate getBookingDate();
+
+    Short getSlotOrdinal();
+
+    Long getBookingCount();
+}
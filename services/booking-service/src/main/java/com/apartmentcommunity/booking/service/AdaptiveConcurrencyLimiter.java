@@ -0,0 +1,134 @@
+package com.apartmentcommunity.booking.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of booking creations running at once, at a limit that follows their
+ * measured latency.
+ *
+ * Latencies are averaged over windows of at least {@code window-ms} and
+ * {@code min-samples} calls and compared with a baseline that tracks the best recent
+ * window. While a window stays within {@code tolerance} times the baseline, the limit
+ * grows by its square root, which leaves room for a short queue. Beyond that it shrinks
+ * in proportion, down to half per window. Excess calls are then turned away at the door
+ * instead of queueing on the database and pushing up latency for the calls already
+ * admitted. A rejection costs one atomic increment and decrement.
+ */
+@Service
+public class AdaptiveConcurrencyLimiter {
+    // How far the baseline moves toward a slower window; faster windows replace it outright
+    private static final double BASELINE_DRIFT = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final int minSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Current window and baseline, guarded by this
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double baselineRtt;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(@Value("${booking.admission.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${booking.admission.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${booking.admission.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${booking.admission.concurrency.tolerance:1.5}") double tolerance,
+                                      @Value("${booking.admission.concurrency.window-ms:1000}") long windowMs,
+                                      @Value("${booking.admission.concurrency.min-samples:20}") int minSamples,
+                                      MeterRegistry meterRegistry) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("booking.admission.concurrency needs 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.minSamples = minSamples;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("booking.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+            .description("Current concurrency limit for booking creation")
+            .register(meterRegistry);
+        Gauge.builder("booking.admission.in_flight", inFlight, AtomicInteger::get)
+            .register(meterRegistry);
+        FunctionCounter.builder("booking.admission.rejected", rejected, LongAdder::sum)
+            .tag("reason", "overload")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit if fewer than the limit are in use. Every successful call must be
+     * followed by {@link #release}.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a permit, recording how long the call held it.
+     */
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        sample(rttNanos, current);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtRelease) {
+        long now = System.nanoTime();
+        if (windowSamples == 0) {
+            windowStart = now;
+        }
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+        if (windowSamples < minSamples || now - windowStart < windowNanos) {
+            return;
+        }
+
+        double rtt = (double) windowRttSum / windowSamples;
+        boolean utilized = windowMaxInFlight * 2 >= limit;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        adjust(rtt, utilized);
+    }
+
+    private void adjust(double rtt, boolean utilized) {
+        baselineRtt = baselineRtt == 0 || rtt < baselineRtt
+                ? rtt
+                : baselineRtt + (rtt - baselineRtt) * BASELINE_DRIFT;
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / rtt));
+        if (gradient >= 1.0 && !utilized) {
+            // Latency says nothing about a limit the traffic never came close to
+            return;
+        }
+        double next = limit * gradient + (gradient >= 1.0 ? Math.sqrt(limit) : 0);
+        limit = (int) Math.max(minLimit, Math.min(maxLimit, Math.round(next)));
+    }
+}
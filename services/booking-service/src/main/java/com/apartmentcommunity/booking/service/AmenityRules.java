@@ -0,0 +1,155 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.model.AmenityType;
+import com.apartmentcommunity.booking.model.SlotCodec;
+
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Booking rules of one amenity as published by amenity-service. Immutable; a rule change
+ * replaces the whole instance in {@link AmenityRulesCache}.
+ */
+public final class AmenityRules {
+    private final Long amenityId;
+    private final AmenityType amenityType;
+    private final boolean dayBased;
+    private final int slotMinutes;
+    private final LocalTime openingTime;
+    private final LocalTime closingTime;
+    private final int slotCapacity;
+    private final int dailyCapacity;
+    private final int[] slotOrdinals;
+    private final List<String> slotLabels;
+
+    public AmenityRules(Long amenityId, AmenityType amenityType, boolean dayBased, int slotMinutes,
+                        LocalTime openingTime, LocalTime closingTime, int slotCapacity, int dailyCapacity) {
+        this.amenityId = amenityId;
+        this.amenityType = amenityType;
+        this.dayBased = dayBased;
+        this.slotMinutes = slotMinutes;
+        this.openingTime = openingTime;
+        this.closingTime = closingTime;
+        this.slotCapacity = slotCapacity;
+        this.dailyCapacity = dailyCapacity;
+
+        int opening = openingTime.toSecondOfDay() / 60;
+        int slotCount = dayBased ? 0 : (closingTime.toSecondOfDay() / 60 - opening) / slotMinutes;
+        this.slotOrdinals = new int[slotCount];
+        String[] labels = new String[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slotOrdinals[i] = SlotCodec.ordinalOf(opening + i * slotMinutes);
+            labels[i] = SlotCodec.label(slotOrdinals[i]);
+        }
+        this.slotLabels = List.of(labels);
+    }
+
+    /**
+     * Reads the rules from an amenity-service response ("id") or amenity event ("amenityId").
+     */
+    public static AmenityRules fromMap(Map<String, Object> body) {
+        Object id = body.containsKey("amenityId") ? body.get("amenityId") : body.get("id");
+        Object dailyCapacity = body.get("dailyCapacity");
+        return new AmenityRules(
+                ((Number) id).longValue(),
+                AmenityType.valueOf((String) body.get("amenityType")),
+                Boolean.TRUE.equals(body.get("dayBased")),
+                ((Number) body.get("slotMinutes")).intValue(),
+                LocalTime.parse((String) body.get("openingTime")),
+                LocalTime.parse((String) body.get("closingTime")),
+                ((Number) body.get("slotCapacity")).intValue(),
+                dailyCapacity != null ? ((Number) dailyCapacity).intValue() : 0);
+    }
+
+    public Long getAmenityId() {
+        return amenityId;
+    }
+
+    public AmenityType getAmenityType() {
+        return amenityType;
+    }
+
+    public boolean isDayBased() {
+        return dayBased;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public LocalTime getOpeningTime() {
+        return openingTime;
+    }
+
+    public LocalTime getClosingTime() {
+        return closingTime;
+    }
+
+    /**
+     * Maximum bookings per slot for slot-based amenities, or per day for day-based ones.
+     */
+    public int getCapacity() {
+        return dayBased ? dailyCapacity : slotCapacity;
+    }
+
+    /**
+     * Number of bookable slots between opening and closing; zero for day-based amenities.
+     */
+    public int getSlotCount() {
+        return slotOrdinals.length;
+    }
+
+    /**
+     * SlotCodec ordinal of the i-th slot, i.e. its index into an occupancy count array.
+     */
+    public int getSlotOrdinal(int slot) {
+        return slotOrdinals[slot];
+    }
+
+    /**
+     * Hash of the rule values, which changes whenever amenity-service changes the rules.
+     */
+    public int fingerprint() {
+        return Objects.hash(amenityId, amenityType, dayBased, slotMinutes, openingTime, closingTime,
+                slotCapacity, dailyCapacity);
+    }
+
+    /**
+     * Start times of the slots as "HH:mm".
+     */
+    public List<String> getSlotLabels() {
+        return slotLabels;
+    }
+
+    /**
+     * Indexes of the slots whose count in the occupancy array (indexed by slot ordinal) is
+     * still below capacity.
+     */
+    public BitSet availableSlots(int[] occupancy) {
+        int capacity = getCapacity();
+        BitSet available = new BitSet(slotOrdinals.length);
+        for (int slot = 0; slot < slotOrdinals.length; slot++) {
+            if (occupancy[slotOrdinals[slot]] < capacity) {
+                available.set(slot);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Index of the slot starting at the given minute of the day, or -1 if no slot starts then.
+     */
+    public int slotIndexOf(int startMinute) {
+        if (dayBased) {
+            return -1;
+        }
+        int offset = startMinute - openingTime.toSecondOfDay() / 60;
+        if (offset < 0 || offset % slotMinutes != 0 || offset / slotMinutes >= slotOrdinals.length) {
+            return -1;
+        }
+        return offset / slotMinutes;
+    }
+}
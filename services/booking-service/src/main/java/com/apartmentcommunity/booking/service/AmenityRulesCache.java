@@ -0,0 +1,73 @@
+package com.apartmentcommunity.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local snapshot of the amenity booking rules owned by amenity-service.
+ *
+ * The snapshot is loaded on startup and reloaded periodically, and individual amenities
+ * are replaced as soon as amenity-service broadcasts a change. Lookups never leave the
+ * process unless the amenity is missing from the snapshot, e.g. because amenity-service
+ * was unreachable at startup or the amenity was created moments ago.
+ */
+@Service
+public class AmenityRulesCache {
+    private static final Logger logger = LoggerFactory.getLogger(AmenityRulesCache.class);
+
+    private final AmenityServiceClient amenityServiceClient;
+    private final Map<Long, AmenityRules> rules = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AmenityRulesCache(AmenityServiceClient amenityServiceClient, MeterRegistry meterRegistry) {
+        this.amenityServiceClient = amenityServiceClient;
+        Gauge.builder("amenity.rules.cache.size", rules, Map::size)
+            .register(meterRegistry);
+    }
+
+    public Optional<AmenityRules> get(Long amenityId) {
+        AmenityRules cached = rules.get(amenityId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<AmenityRules> loaded = amenityServiceClient.getRules(amenityId);
+        loaded.ifPresent(r -> rules.putIfAbsent(amenityId, r));
+        return loaded;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${amenity.rules.refresh-interval-ms:300000}",
+               initialDelayString = "${amenity.rules.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            for (AmenityRules loaded : amenityServiceClient.getAllRules()) {
+                rules.put(loaded.getAmenityId(), loaded);
+            }
+        } catch (Exception e) {
+            // Keep serving the last snapshot; missing amenities are fetched one by one
+            logger.warn("Error loading amenity rules: {}", e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{amenityEventsQueue.name}")
+    public void handleAmenityEvent(Map<String, Object> event) {
+        try {
+            AmenityRules changed = AmenityRules.fromMap(event);
+            rules.put(changed.getAmenityId(), changed);
+        } catch (RuntimeException e) {
+            logger.warn("Ignoring malformed amenity event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.apartmentcommunity.booking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Calls to amenity-service. Only used to (re)load the amenity rules snapshot, never on the
+ * booking request path.
+ */
+@Service
+public class AmenityServiceClient {
+    private static final Logger logger = LoggerFactory.getLogger(AmenityServiceClient.class);
+
+    private final RestTemplate restTemplate;
+    private final String amenityServiceUrl;
+
+    public AmenityServiceClient(@Value("${amenity.service.url:http://localhost:8081}") String amenityServiceUrl,
+                                @Value("${amenity.service.timeout-ms:2000}") long timeoutMs,
+                                RestTemplateBuilder restTemplateBuilder) {
+        this.amenityServiceUrl = amenityServiceUrl;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMs))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+    }
+
+    /**
+     * Rules of every amenity. Propagates transport errors so the caller can keep its snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    public List<AmenityRules> getAllRules() {
+        String url = amenityServiceUrl + "/api/amenities";
+        ResponseEntity<List<Map<String, Object>>> response = restTemplate.getForEntity(url, (Class<List<Map<String, Object>>>) (Class<?>) List.class);
+        List<AmenityRules> rules = new ArrayList<>();
+        if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            for (Map<String, Object> body : response.getBody()) {
+                rules.add(AmenityRules.fromMap(body));
+            }
+        }
+        return rules;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<AmenityRules> getRules(Long amenityId) {
+        try {
+            String url = amenityServiceUrl + "/api/amenities/" + amenityId;
+            ResponseEntity<Map<String, Object>> response = restTemplate.getForEntity(url, (Class<Map<String, Object>>) (Class<?>) Map.class);
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                return Optional.of(AmenityRules.fromMap(response.getBody()));
+            }
+        } catch (HttpClientErrorException e) {
+            // Amenity not found
+            return Optional.empty();
+        } catch (Exception e) {
+            logger.warn("Error calling amenity service: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+}
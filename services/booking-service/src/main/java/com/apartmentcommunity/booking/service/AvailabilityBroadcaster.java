@@ -0,0 +1,299 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.event.BookingChangedEvent;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.SlotCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent availability updates for one amenity and date.
+ *
+ * A subscriber first receives a "snapshot" event with the day's booking counts, then a
+ * "slot" event with the new counts of the affected slot after every committed create or
+ * cancellation. Counts come from {@link SlotOccupancyIndex}, which answers dates outside
+ * its window from the database, so they are read before taking the topic's lock. Each read
+ * takes a sequence number first; a read that is older than one already sent is dropped,
+ * since the newer read started after its commit and includes it. Subscribers therefore see
+ * counts that only move forward, and the last event matches the committed state.
+ *
+ * Events are queued per subscriber in a bounded buffer and written by a small sender
+ * pool; a booking transaction never waits on a client socket. A subscriber whose buffer
+ * overflows is disconnected, and its EventSource reconnects and starts over from a
+ * fresh snapshot.
+ */
+@Service
+public class AvailabilityBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityBroadcaster.class);
+
+    private final SlotOccupancyIndex occupancyIndex;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final ExecutorService sender;
+    private final Counter evictedCounter;
+
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Autowired
+    public AvailabilityBroadcaster(SlotOccupancyIndex occupancyIndex,
+                                   @Value("${booking.availability-stream.buffer-size:64}") int bufferSize,
+                                   @Value("${booking.availability-stream.max-subscribers:10000}") int maxSubscribers,
+                                   @Value("${booking.availability-stream.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${booking.availability-stream.sender-threads:4}") int senderThreads,
+                                   MeterRegistry meterRegistry) {
+        this.occupancyIndex = occupancyIndex;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "availability-sse-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("availability.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open availability event streams")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("availability.stream.evicted")
+                .description("Availability subscribers disconnected because they fell behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the amenity and date, starting with a snapshot of the counts.
+     *
+     * @throws IllegalStateException if the subscriber limit has been reached
+     */
+    public SseEmitter subscribe(Long amenityId, LocalDate date) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many availability subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Long key = key(amenityId, date);
+        Subscriber subscriber = new Subscriber(key, emitter);
+        // Completion also covers timeouts and network errors
+        emitter.onCompletion(subscriber::close);
+
+        // Joins the topic together with its snapshot, so no slot event can precede the snapshot
+        while (true) {
+            Topic topic = topics.computeIfAbsent(key, k -> new Topic(amenityId, date));
+            long sequence = topic.sequence.incrementAndGet();
+            int[] occupancy = occupancyIndex.getOccupancy(amenityId, date);
+            synchronized (topic) {
+                // Retry if the topic was dropped meanwhile, or a newer change went out that this read may miss
+                if (topic.closed || topic.published > sequence) {
+                    continue;
+                }
+                if (subscriber.closed.get()) {
+                    return emitter;
+                }
+                subscriber.since = sequence;
+                topic.subscribers.add(subscriber);
+                subscriber.offer(new Event("snapshot", toSnapshot(occupancy)));
+                return emitter;
+            }
+        }
+    }
+
+    /**
+     * Runs after {@link SlotOccupancyIndex#onBookingChanged}, so the index already holds
+     * the committed change.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking booking = event.getBooking();
+        Topic topic = topics.get(key(booking.getAmenityId(), booking.getBookingDate()));
+        if (topic == null) {
+            return;
+        }
+
+        long sequence = topic.sequence.incrementAndGet();
+        int[] occupancy = occupancyIndex.getOccupancy(topic.amenityId, topic.date);
+        synchronized (topic) {
+            if (sequence < topic.published) {
+                // A read that started later, and so includes this change, has already been sent
+                return;
+            }
+            topic.published = sequence;
+            Short ordinal = booking.getSlotOrdinal();
+            Map<String, Object> change = new HashMap<>();
+            change.put("slot", ordinal != null ? SlotCodec.label(ordinal) : null);
+            change.put("booked", occupancy[ordinal != null ? ordinal : SlotOccupancyIndex.DAY_TOTAL]);
+            change.put("dayTotal", occupancy[SlotOccupancyIndex.DAY_TOTAL]);
+            Event slotEvent = new Event("slot", change);
+            for (Subscriber subscriber : topic.subscribers) {
+                // A snapshot read after this one already holds these counts
+                if (sequence > subscriber.since) {
+                    subscriber.offer(slotEvent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${booking.availability-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Topic topic : topics.values()) {
+            for (Subscriber subscriber : topic.subscribers) {
+                subscriber.offer(Event.HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Topic topic : topics.values()) {
+            for (Subscriber subscriber : topic.subscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+        sender.shutdownNow();
+    }
+
+    private static Map<String, Object> toSnapshot(int[] occupancy) {
+        Map<String, Integer> bookedSlots = new HashMap<>();
+        for (int bucket = 0; bucket < SlotOccupancyIndex.BUCKETS_PER_DAY; bucket++) {
+            if (occupancy[bucket] > 0) {
+                bookedSlots.put(SlotCodec.label(bucket), occupancy[bucket]);
+            }
+        }
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("dayTotal", occupancy[SlotOccupancyIndex.DAY_TOTAL]);
+        snapshot.put("bookedSlots", bookedSlots);
+        return snapshot;
+    }
+
+    private static Long key(Long amenityId, LocalDate date) {
+        return (amenityId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static final class Topic {
+        private final Long amenityId;
+        private final LocalDate date;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicLong sequence = new AtomicLong();
+        // Guarded by the topic: the sequence of the last counts sent, and whether it was removed
+        private long published;
+        private boolean closed;
+
+        private Topic(Long amenityId, LocalDate date) {
+            this.amenityId = amenityId;
+            this.date = date;
+        }
+    }
+
+    // Event payloads are shared by all subscribers; the SSE frame is built per send
+    private static final class Event {
+        private static final Event HEARTBEAT = new Event(null, null);
+
+        private final String name;
+        private final Object data;
+
+        private Event(String name, Object data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toSse() {
+            return name == null
+                    ? SseEmitter.event().comment("heartbeat")
+                    : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    private final class Subscriber {
+        private final Long key;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Event> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Guarded by the topic: the sequence of the snapshot this subscriber started from
+        private long since;
+
+        private Subscriber(Long key, SseEmitter emitter) {
+            this.key = key;
+            this.emitter = emitter;
+        }
+
+        private void offer(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                evictedCounter.increment();
+                logger.debug("Disconnecting slow availability subscriber for topic {}", key);
+                close();
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // Only one drain runs per subscriber at a time, which keeps its events in order
+        private void drain() {
+            try {
+                do {
+                    Event event;
+                    while (!closed.get() && (event = buffer.poll()) != null) {
+                        emitter.send(event.toSse());
+                    }
+                    draining.set(false);
+                } while (!closed.get() && !buffer.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // The container reports the broken connection through onCompletion as well
+                close();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            buffer.clear();
+            subscriberCount.decrementAndGet();
+            topics.computeIfPresent(key, (k, topic) -> {
+                synchronized (topic) {
+                    topic.subscribers.remove(this);
+                    topic.closed = topic.subscribers.isEmpty();
+                    return topic.closed ? null : topic;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.model.SlotCodec;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The availability response for one amenity and day, built from its rules and its booking
+ * counts (as returned by {@link SlotOccupancyIndex#getOccupancy}).
+ */
+public final class AvailabilityView {
+    private AvailabilityView() {
+    }
+
+    public static Map<String, Object> build(AmenityRules rules, Long amenityId, String date, int[] occupancy) {
+        int dayTotal = occupancy[SlotOccupancyIndex.DAY_TOTAL];
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("amenityId", amenityId);
+        response.put("date", date);
+
+        // Rules come from the amenity-service snapshot, so the UI needs no copy of its own
+        response.put("amenityType", rules.getAmenityType());
+        response.put("capacity", rules.getCapacity());
+        response.put("openingTime", rules.getOpeningTime().toString());
+        response.put("closingTime", rules.getClosingTime().toString());
+
+        if (rules.isDayBased()) {
+            // For day-based amenities, return simple booked status
+            response.put("isDayBased", true);
+            response.put("isBooked", dayTotal > 0);
+            response.put("bookingCount", dayTotal);
+        } else {
+            // For slot-based amenities, return time slot information with counts
+            response.put("isDayBased", false);
+            response.put("slotMinutes", rules.getSlotMinutes());
+            response.put("slots", rules.getSlotLabels());
+
+            // Slot labels are shared strings, so this only allocates the list itself
+            BitSet availableSlots = rules.availableSlots(occupancy);
+            List<String> availableSlotsStr = new ArrayList<>(availableSlots.cardinality());
+            for (int slot = availableSlots.nextSetBit(0); slot >= 0; slot = availableSlots.nextSetBit(slot + 1)) {
+                availableSlotsStr.add(rules.getSlotLabels().get(slot));
+            }
+            response.put("availableSlots", availableSlotsStr);
+
+            // Booking counts keyed by slot start time ("HH:mm")
+            Map<String, Integer> bookedSlotsCount = new HashMap<>();
+            for (int bucket = 0; bucket < SlotOccupancyIndex.BUCKETS_PER_DAY; bucket++) {
+                if (occupancy[bucket] > 0) {
+                    bookedSlotsCount.put(SlotCodec.label(bucket), occupancy[bucket]);
+                }
+            }
+
+            response.put("bookedSlots", bookedSlotsCount);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,56 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.model.Booking;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position (slotStart, id) of the last booking on a page, serialized as an opaque
+ * URL-safe token. The token stays valid when bookings are added or removed elsewhere.
+ */
+public class BookingCursor {
+    private final LocalDateTime slotStart;
+    private final Long id;
+
+    public BookingCursor(LocalDateTime slotStart, Long id) {
+        this.slotStart = slotStart;
+        this.id = id;
+    }
+
+    public static BookingCursor after(Booking booking) {
+        return new BookingCursor(booking.getSlotStart(), booking.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static BookingCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String value = slotStart + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getSlotStart() {
+        return slotStart;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
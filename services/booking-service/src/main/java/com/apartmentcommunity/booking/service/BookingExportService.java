@@ -0,0 +1,176 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.dto.BookingResponse;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Writes the complete booking history to an output stream as NDJSON or CSV.
+ *
+ * Rows are read through a database cursor and handled in fixed-size batches: each batch
+ * is enriched with one user-service lookup, written, flushed and then dropped from the
+ * persistence context, so memory use does not grow with the size of the table.
+ */
+@Service
+public class BookingExportService {
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "id,amenityId,amenityType,userId,userName,userFullName,flatNo,"
+            + "contactNumber,bookingDate,timeSlot,slotStart,slotEnd,createdAt";
+
+    private final BookingRepository bookingRepository;
+    private final UserServiceClient userServiceClient;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public BookingExportService(BookingRepository bookingRepository,
+                                UserServiceClient userServiceClient,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${booking.export.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.userServiceClient = userServiceClient;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Streams every booking ordered by slot start. Returns the number of rows written.
+     */
+    public long export(Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try {
+            Long written = readOnlyTransaction.execute(status -> {
+                long rows = 0;
+                List<Booking> batch = new ArrayList<>(batchSize);
+                try (Stream<Booking> bookings = bookingRepository.streamAllOrderBySlotStart()) {
+                    Iterator<Booking> iterator = bookings.iterator();
+                    while (iterator.hasNext()) {
+                        batch.add(iterator.next());
+                        if (batch.size() == batchSize || !iterator.hasNext()) {
+                            rows += writeBatch(batch, format, writer);
+                            batch.clear();
+                            // Loaded entities are no longer needed once written
+                            entityManager.clear();
+                        }
+                    }
+                }
+                return rows;
+            });
+            writer.flush();
+            return written != null ? written : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int writeBatch(List<Booking> batch, Format format, Writer writer) {
+        Set<Long> userIds = new HashSet<>();
+        for (Booking booking : batch) {
+            userIds.add(booking.getUserId());
+        }
+        Map<Long, UserServiceClient.UserInfo> users = userServiceClient.getUserInfos(userIds);
+
+        try {
+            for (Booking booking : batch) {
+                UserServiceClient.UserInfo user = users.get(booking.getUserId());
+                if (format == Format.CSV) {
+                    writeCsvRow(booking, user, writer);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(toResponse(booking, user)));
+                }
+                writer.write('\n');
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // Client went away; abort the cursor instead of reading the rest of the table
+            throw new UncheckedIOException(e);
+        }
+        return batch.size();
+    }
+
+    private BookingResponse toResponse(Booking booking, UserServiceClient.UserInfo user) {
+        return new BookingResponse(
+                booking.getId(),
+                booking.getAmenityId(),
+                booking.getUserId(),
+                user != null ? user.getUsername() : "Unknown",
+                user != null ? user.getName() : null,
+                user != null ? user.getFlatNo() : null,
+                user != null ? user.getContactNumber() : null,
+                booking.getSlotStart(),
+                booking.getSlotEnd(),
+                booking.getCreatedAt());
+    }
+
+    private void writeCsvRow(Booking booking, UserServiceClient.UserInfo user, Writer writer) throws IOException {
+        writer.write(String.valueOf(booking.getId()));
+        writeCsvField(booking.getAmenityId(), writer);
+        writeCsvField(booking.getAmenityType(), writer);
+        writeCsvField(booking.getUserId(), writer);
+        writeCsvField(user != null ? user.getUsername() : "Unknown", writer);
+        writeCsvField(user != null ? user.getName() : null, writer);
+        writeCsvField(user != null ? user.getFlatNo() : null, writer);
+        writeCsvField(user != null ? user.getContactNumber() : null, writer);
+        writeCsvField(booking.getBookingDate(), writer);
+        writeCsvField(booking.getTimeSlot(), writer);
+        writeCsvField(booking.getSlotStart(), writer);
+        writeCsvField(booking.getSlotEnd(), writer);
+        writeCsvField(booking.getCreatedAt(), writer);
+    }
+
+    private static void writeCsvField(Object value, Writer writer) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
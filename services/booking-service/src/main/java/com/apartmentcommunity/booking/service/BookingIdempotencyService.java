@@ -0,0 +1,244 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.exception.BookingValidationException;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.IdempotencyKey;
+import com.apartmentcommunity.booking.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Booking creation for requests carrying an Idempotency-Key.
+ *
+ * The key is claimed in the booking transaction and committed together with the booking
+ * and its serialized response, so neither exists without the other. A retry gets that
+ * response back from a small in-memory cache, or from the table when the cache no longer
+ * has it or another replica handled the original; validation, the insert and event
+ * publishing are not run again. Duplicates arriving while the first request is still
+ * running wait for it: on this replica through {@link SingleFlight}, on others on the
+ * key's row. Only successful creations are stored, so a request that failed can be
+ * retried with the same key.
+ *
+ * A key is bound to the booking it was first used for (amenity, date and slot, hashed);
+ * reusing it for a different booking is rejected rather than answered with the response
+ * to the first.
+ */
+@Service
+public class BookingIdempotencyService {
+    private final BookingService bookingService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int ttlHours;
+    private final Map<String, CachedResponse> cache;
+    private final SingleFlight<String, Result> flights = new SingleFlight<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    @Autowired
+    public BookingIdempotencyService(BookingService bookingService,
+                                     IdempotencyKeyRepository idempotencyKeyRepository,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${booking.idempotency.ttl-hours:24}") int ttlHours,
+                                     @Value("${booking.idempotency.cache-size:10000}") int cacheSize,
+                                     MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlHours = ttlHours;
+        // Access-ordered, so the least recently used response goes first when full
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        FunctionCounter.builder("booking.idempotency.requests", executed, LongAdder::sum)
+            .tag("result", "executed").register(meterRegistry);
+        FunctionCounter.builder("booking.idempotency.requests", replayed, LongAdder::sum)
+            .tag("result", "replayed").register(meterRegistry);
+    }
+
+    /**
+     * Creates the booking, or returns the response stored for the user's key if a request
+     * with it already succeeded within the last {@code ttl-hours}.
+     *
+     * @throws BookingValidationException as {@link BookingService#createBooking} does, in
+     *         which case nothing is stored for the key, or if the key was used for a
+     *         different booking
+     */
+    public Result createBooking(Long userId, String key, Long amenityId, LocalDate bookingDate, String timeSlot) {
+        String cacheKey = userId + ":" + key;
+        String requestHash = requestHash(amenityId, bookingDate, timeSlot);
+        Result cached = cached(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        AtomicBoolean led = new AtomicBoolean();
+        Result result = flights.execute(cacheKey, () -> {
+            led.set(true);
+            // The previous flight for the key may have finished since the first look
+            Result finished = cached(cacheKey);
+            if (finished != null) {
+                return finished;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiredBefore = now.minusHours(ttlHours);
+            String body = transactionTemplate.execute(status -> {
+                if (idempotencyKeyRepository.claim(userId, key, requestHash, now, expiredBefore) == 0) {
+                    return null;
+                }
+                String response = toJson(bookingService.createBooking(amenityId, userId, bookingDate, timeSlot));
+                idempotencyKeyRepository.complete(userId, key, response);
+                return response;
+            });
+
+            Result stored;
+            if (body != null) {
+                stored = new Result(body, requestHash, false);
+            } else {
+                // Another request with the key committed first, possibly on another replica
+                IdempotencyKey row = idempotencyKeyRepository.findLive(userId, key, expiredBefore)
+                        .filter(k -> k.getResponseBody() != null)
+                        .orElseThrow(() -> new BookingValidationException(
+                                "The request with this Idempotency-Key could not be completed, please retry"));
+                stored = new Result(row.getResponseBody(), row.getRequestHash(), true);
+            }
+            synchronized (cache) {
+                cache.put(cacheKey, new CachedResponse(stored.body, stored.requestHash,
+                        System.currentTimeMillis() + TimeUnit.HOURS.toMillis(ttlHours)));
+            }
+            return stored;
+        });
+
+        // Callers that joined another request's flight get its response as a replay
+        if (led.get() && !result.replayed) {
+            executed.increment();
+            return result;
+        }
+        return replay(result, requestHash);
+    }
+
+    /**
+     * The response cached on this replica for the user's key, without booking anything or
+     * touching the database; null otherwise. Lets a retry be answered before admission
+     * control, while responses only stored in the table are found by {@link #createBooking}.
+     *
+     * @throws BookingValidationException if the key was used for a different booking
+     */
+    public Result findCompleted(Long userId, String key, Long amenityId, LocalDate bookingDate, String timeSlot) {
+        Result stored = cached(userId + ":" + key);
+        return stored != null ? replay(stored, requestHash(amenityId, bookingDate, timeSlot)) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours)));
+    }
+
+    private Result cached(String cacheKey) {
+        synchronized (cache) {
+            CachedResponse response = cache.get(cacheKey);
+            if (response == null) {
+                return null;
+            }
+            if (response.expiresAt <= System.currentTimeMillis()) {
+                cache.remove(cacheKey);
+                return null;
+            }
+            return new Result(response.body, response.requestHash, true);
+        }
+    }
+
+    // Checked outside the flight, so a mismatched request fails alone rather than with its flight
+    private Result replay(Result stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw new BookingValidationException("This Idempotency-Key was already used for a different booking");
+        }
+        replayed.increment();
+        return stored.replayed ? stored : new Result(stored.body, stored.requestHash, true);
+    }
+
+    private static String requestHash(Long amenityId, LocalDate bookingDate, String timeSlot) {
+        String request = amenityId + "|" + bookingDate + "|" + Objects.toString(timeSlot, "");
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Booking booking) {
+        try {
+            return objectMapper.writeValueAsString(booking);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize booking " + booking.getId(), e);
+        }
+    }
+
+    /**
+     * The 201 response body as JSON, and whether it was replayed from an earlier request.
+     */
+    public static final class Result {
+        private final String body;
+        private final String requestHash;
+        private final boolean replayed;
+
+        private Result(String body, String requestHash, boolean replayed) {
+            this.body = body;
+            this.requestHash = requestHash;
+            this.replayed = replayed;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+
+    private static final class CachedResponse {
+        private final String body;
+        private final String requestHash;
+        private final long expiresAt;
+
+        private CachedResponse(String body, String requestHash, long expiresAt) {
+            this.body = body;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.dto.BookingSearchCriteria;
+import com.apartmentcommunity.booking.dto.BookingSeriesResponse;
+import com.apartmentcommunity.booking.event.BookingChangedEvent;
+import com.apartmentcommunity.booking.exception.BookingValidationException;
+import com.apartmentcommunity.booking.exception.InvalidBookingRequestException;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.SlotCodec;
+import com.apartmentcommunity.booking.repository.BookingRepository;
+import com.apartmentcommunity.booking.repository.SlotCapacityRepository;
+import com.apartmentcommunity.booking.repository.SlotCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class BookingService {
+    // Bounds on a series: a year of weekly occurrences, at most four weeks apart
+    public static final int MAX_SERIES_OCCURRENCES = 52;
+    public static final int MAX_SERIES_INTERVAL_WEEKS = 4;
+
+    // Capacity counter key shared by all bookings of a day-based amenity on one date
+    private static final String WHOLE_DAY_SLOT = "";
+
+    private final BookingRepository bookingRepository;
+    private final SlotCapacityRepository slotCapacityRepository;
+    private final NotificationPublisher notificationPublisher;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final AmenityRulesCache amenityRulesCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // booking.create.phase{phase=validation|capacity|insert|publish}
+    private final Timer validationTimer;
+    private final Timer capacityTimer;
+    private final Timer insertTimer;
+    private final Timer publishTimer;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public BookingService(BookingRepository bookingRepository, SlotCapacityRepository slotCapacityRepository,
+                          NotificationPublisher notificationPublisher, SlotOccupancyIndex occupancyIndex,
+                          AmenityRulesCache amenityRulesCache, ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.slotCapacityRepository = slotCapacityRepository;
+        this.notificationPublisher = notificationPublisher;
+        this.occupancyIndex = occupancyIndex;
+        this.amenityRulesCache = amenityRulesCache;
+        this.eventPublisher = eventPublisher;
+
+        this.validationTimer = phaseTimer("validation", meterRegistry);
+        this.capacityTimer = phaseTimer("capacity", meterRegistry);
+        this.insertTimer = phaseTimer("insert", meterRegistry);
+        this.publishTimer = phaseTimer("publish", meterRegistry);
+        this.rejectedCounter = Counter.builder("booking.create.rejected")
+                .description("Bookings refused because the slot or day was fully booked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates a booking under the amenity's current rules. The amenity type and the slot
+     * boundaries come from the rules; the slot start and end sent by the client are ignored.
+     */
+    @Transactional
+    public Booking createBooking(Long amenityId, Long userId, LocalDate bookingDate, String timeSlot) {
+        long phaseStart = System.nanoTime();
+        AmenityRules rules = getRules(amenityId);
+        if (!rules.isDayBased()) {
+            validateSlot(rules, timeSlot);
+        }
+        phaseStart = record(validationTimer, phaseStart);
+
+        boolean reserved = reserveCapacity(rules, bookingDate, rules.isDayBased() ? WHOLE_DAY_SLOT : timeSlot);
+        phaseStart = record(capacityTimer, phaseStart);
+        if (!reserved) {
+            rejectedCounter.increment();
+            int capacity = rules.getCapacity();
+            throw new BookingValidationException(rules.isDayBased()
+                    ? "This amenity is fully booked for " + bookingDate + " (" + capacity + "/" + capacity + ")"
+                    : "This time slot is fully booked (" + capacity + "/" + capacity + ")");
+        }
+
+        // Day-based bookings occupy the whole day and have no time slot
+        Booking booking = newBooking(rules, userId, bookingDate, rules.isDayBased() ? null : timeSlot);
+        // Flushed here so the insert is timed as its own phase rather than at commit
+        Booking saved = bookingRepository.saveAndFlush(booking);
+        phaseStart = record(insertTimer, phaseStart);
+
+        notificationPublisher.publishBookingCreated(saved);
+        eventPublisher.publishEvent(new BookingChangedEvent(saved, 1));
+        record(publishTimer, phaseStart);
+        return saved;
+    }
+
+    @Transactional
+    public void cancelBooking(Long bookingId, Long userId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+
+        if (!booking.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("Booking not found");
+        }
+
+        bookingRepository.delete(booking);
+        slotCapacityRepository.release(booking.getAmenityId(), booking.getBookingDate(),
+                capacityKey(booking.getTimeSlot()));
+        notificationPublisher.publishBookingCancelled(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking, -1));
+    }
+
+    /**
+     * Books the same slot on {@code occurrences} dates, {@code intervalWeeks} apart, from
+     * startDate on. Capacity for all dates is taken in one statement, and the bookings and
+     * their events are inserted in JDBC batches. Dates that are already fully booked are
+     * returned as conflicts; the rest are booked.
+     *
+     * @throws InvalidBookingRequestException if the series starts in the past or exceeds
+     *         {@link #MAX_SERIES_OCCURRENCES} or {@link #MAX_SERIES_INTERVAL_WEEKS}
+     * @throws BookingValidationException if the time slot is not one of the amenity's slots
+     */
+    @Transactional
+    public BookingSeriesResponse createSeries(Long amenityId, Long userId, LocalDate startDate, String timeSlot,
+                                              int occurrences, int intervalWeeks) {
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new InvalidBookingRequestException("A booking series cannot start in the past");
+        }
+        if (occurrences < 1 || occurrences > MAX_SERIES_OCCURRENCES) {
+            throw new InvalidBookingRequestException(
+                    "A booking series has between 1 and " + MAX_SERIES_OCCURRENCES + " occurrences");
+        }
+        if (intervalWeeks < 1 || intervalWeeks > MAX_SERIES_INTERVAL_WEEKS) {
+            throw new InvalidBookingRequestException(
+                    "Occurrences of a booking series are between 1 and " + MAX_SERIES_INTERVAL_WEEKS + " weeks apart");
+        }
+
+        AmenityRules rules = getRules(amenityId);
+        if (rules.isDayBased()) {
+            timeSlot = null;
+        } else {
+            validateSlot(rules, timeSlot);
+        }
+
+        List<LocalDate> dates = new ArrayList<>(occurrences);
+        for (int i = 0; i < occurrences; i++) {
+            dates.add(startDate.plusWeeks((long) i * intervalWeeks));
+        }
+        Set<Long> reservedDays = new HashSet<>();
+        for (Number epochDay : slotCapacityRepository.reserveAll(amenityId, dates, capacityKey(timeSlot),
+                rules.getAmenityType().name(), rules.getCapacity())) {
+            reservedDays.add(epochDay.longValue());
+        }
+
+        UUID seriesId = UUID.randomUUID();
+        List<Booking> bookings = new ArrayList<>(reservedDays.size());
+        List<LocalDate> conflicts = new ArrayList<>();
+        for (LocalDate date : dates) {
+            if (!reservedDays.contains(date.toEpochDay())) {
+                conflicts.add(date);
+                continue;
+            }
+            Booking booking = newBooking(rules, userId, date, timeSlot);
+            booking.setSeriesId(seriesId);
+            bookings.add(booking);
+        }
+        if (!conflicts.isEmpty()) {
+            rejectedCounter.increment(conflicts.size());
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        notificationPublisher.publishBookingsCreated(saved);
+        for (Booking booking : saved) {
+            eventPublisher.publishEvent(new BookingChangedEvent(booking, 1));
+        }
+        return new BookingSeriesResponse(saved.isEmpty() ? null : seriesId, saved, conflicts);
+    }
+
+    /**
+     * Cancels the user's bookings in the series from today on; past occurrences stay.
+     *
+     * @return the number of bookings cancelled
+     * @throws IllegalArgumentException if the user has no upcoming bookings in the series
+     */
+    @Transactional
+    public int cancelSeries(UUID seriesId, Long userId) {
+        List<Booking> bookings = bookingRepository.findBySeriesIdAndUserIdAndBookingDateGreaterThanEqual(
+                seriesId, userId, LocalDate.now());
+        if (bookings.isEmpty()) {
+            throw new IllegalArgumentException("Booking series not found");
+        }
+
+        bookingRepository.deleteAllInBatch(bookings);
+        // Every occurrence of a series has the same amenity and slot
+        Booking first = bookings.get(0);
+        List<LocalDate> dates = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            dates.add(booking.getBookingDate());
+        }
+        slotCapacityRepository.releaseAll(first.getAmenityId(), dates, capacityKey(first.getTimeSlot()));
+
+        notificationPublisher.publishBookingsCancelled(bookings);
+        for (Booking booking : bookings) {
+            eventPublisher.publishEvent(new BookingChangedEvent(booking, -1));
+        }
+        return bookings.size();
+    }
+
+    public List<Booking> getUserBookings(Long userId) {
+        return bookingRepository.findByUserId(userId);
+    }
+
+    /**
+     * One page of bookings matching the criteria, ordered by (slotStart, id), starting after the cursor.
+     */
+    @Transactional(readOnly = true)
+    public List<Booking> searchBookings(BookingSearchCriteria criteria, BookingCursor after, int limit) {
+        return bookingRepository.search(criteria,
+                after != null ? after.getSlotStart() : null,
+                after != null ? after.getId() : null,
+                limit);
+    }
+
+    /**
+     * Booking counts for the day from the in-memory occupancy index.
+     * See {@link SlotOccupancyIndex#getOccupancy(Long, LocalDate)}.
+     */
+    public int[] getOccupancy(Long amenityId, LocalDate date) {
+        return occupancyIndex.getOccupancy(amenityId, date);
+    }
+
+    /**
+     * Version of the day's availability. It changes with the amenity's rules and with every
+     * committed create or cancellation, so read it before the counts it describes.
+     *
+     * @throws IllegalArgumentException if amenity-service does not know the amenity
+     */
+    public String getAvailabilityVersion(Long amenityId, LocalDate date) {
+        return Integer.toHexString(getRules(amenityId).fingerprint()) + "-" + occupancyIndex.getVersion(amenityId, date);
+    }
+
+    /**
+     * The amenity's booking rules from the local snapshot.
+     *
+     * @throws IllegalArgumentException if amenity-service does not know the amenity
+     */
+    public AmenityRules getRules(Long amenityId) {
+        return amenityRulesCache.get(amenityId)
+                .orElseThrow(() -> new IllegalArgumentException("Amenity not found"));
+    }
+
+    /**
+     * Slots of the amenity that are still below capacity, as a set of slot indexes
+     * (see {@link AmenityRules#getSlotLabels()}).
+     */
+    public BitSet getAvailableSlots(Long amenityId, LocalDate date) {
+        return getAvailableSlots(getRules(amenityId), getOccupancy(amenityId, date));
+    }
+
+    public BitSet getAvailableSlots(AmenityRules rules, int[] occupancy) {
+        return rules.availableSlots(occupancy);
+    }
+
+    /**
+     * Booked and remaining capacity for every amenity, day and slot in the range, computed
+     * from one grouped count query. Slot-based amenities get one cell per slot, listed in
+     * the amenity's "slots"; day-based amenities get a single cell per day.
+     *
+     * @throws IllegalArgumentException if any of the amenities is unknown
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAvailabilityMatrix(LocalDate from, LocalDate to, Collection<Long> amenityIds) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        Map<Long, AmenityRules> rulesById = new HashMap<>();
+        for (Long amenityId : amenityIds) {
+            rulesById.put(amenityId, getRules(amenityId));
+        }
+
+        // booked[amenity][day][bucket] filled from the aggregate rows
+        Map<Long, int[][]> booked = new HashMap<>();
+        for (Long amenityId : amenityIds) {
+            booked.put(amenityId, new int[days][SlotOccupancyIndex.BUCKETS_PER_DAY + 1]);
+        }
+        for (SlotCount slotCount : bookingRepository.countSlotsForAmenitiesBetween(amenityIds, from, to)) {
+            int[] counts = booked.get(slotCount.getAmenityId())[(int) ChronoUnit.DAYS.between(from, slotCount.getBookingDate())];
+            int count = slotCount.getBookingCount().intValue();
+            if (slotCount.getSlotOrdinal() != null) {
+                counts[slotCount.getSlotOrdinal()] += count;
+            }
+            counts[SlotOccupancyIndex.DAY_TOTAL] += count;
+        }
+
+        List<Map<String, Object>> amenities = new ArrayList<>();
+        for (Long amenityId : amenityIds) {
+            AmenityRules rules = rulesById.get(amenityId);
+            boolean dayBased = rules.isDayBased();
+            int capacity = rules.getCapacity();
+
+            Map<String, Object> daysMap = new LinkedHashMap<>();
+            int[][] amenityCounts = booked.get(amenityId);
+            for (int day = 0; day < days; day++) {
+                int cells = dayBased ? 1 : rules.getSlotCount();
+                int[] bookedCells = new int[cells];
+                int[] remainingCells = new int[cells];
+                for (int cell = 0; cell < cells; cell++) {
+                    int index = dayBased ? SlotOccupancyIndex.DAY_TOTAL : rules.getSlotOrdinal(cell);
+                    bookedCells[cell] = amenityCounts[day][index];
+                    remainingCells[cell] = Math.max(0, capacity - bookedCells[cell]);
+                }
+                Map<String, Object> cellsMap = new HashMap<>();
+                cellsMap.put("booked", bookedCells);
+                cellsMap.put("remaining", remainingCells);
+                daysMap.put(from.plusDays(day).toString(), cellsMap);
+            }
+
+            Map<String, Object> amenity = new LinkedHashMap<>();
+            amenity.put("amenityId", amenityId);
+            amenity.put("amenityType", rules.getAmenityType());
+            amenity.put("isDayBased", dayBased);
+            amenity.put("capacity", capacity);
+            amenity.put("slots", rules.getSlotLabels());
+            amenity.put("days", daysMap);
+            amenities.add(amenity);
+        }
+
+        Map<String, Object> matrix = new LinkedHashMap<>();
+        matrix.put("from", from.toString());
+        matrix.put("to", to.toString());
+        matrix.put("amenities", amenities);
+        return matrix;
+    }
+
+    // timeSlot is null for day-based amenities, which take the amenity's opening hours
+    private static Booking newBooking(AmenityRules rules, Long userId, LocalDate bookingDate, String timeSlot) {
+        LocalDateTime slotStart;
+        LocalDateTime slotEnd;
+        if (timeSlot == null) {
+            slotStart = bookingDate.atTime(rules.getOpeningTime());
+            slotEnd = bookingDate.atTime(rules.getClosingTime());
+        } else {
+            slotStart = bookingDate.atStartOfDay().plusMinutes(SlotCodec.startMinute(timeSlot));
+            slotEnd = bookingDate.atStartOfDay().plusMinutes(SlotCodec.endMinute(timeSlot));
+        }
+        return new Booking(rules.getAmenityId(), userId, rules.getAmenityType(), bookingDate, timeSlot, slotStart, slotEnd);
+    }
+
+    private void validateSlot(AmenityRules rules, String timeSlot) {
+        int start = SlotCodec.startMinute(timeSlot);
+        int end = SlotCodec.endMinute(timeSlot);
+        if (start == SlotCodec.INVALID || end == SlotCodec.INVALID) {
+            throw new BookingValidationException("Time slot is required in HH:mm-HH:mm format");
+        }
+        if (rules.slotIndexOf(start) < 0 || end != start + rules.getSlotMinutes()) {
+            throw new BookingValidationException("Time slot must be one of the " + rules.getSlotMinutes()
+                    + "-minute slots between " + rules.getOpeningTime() + " and " + rules.getClosingTime());
+        }
+    }
+
+    /**
+     * Atomically takes one unit of capacity. Must run inside the booking transaction so
+     * that a failed insert rolls the reservation back with it.
+     */
+    private boolean reserveCapacity(AmenityRules rules, LocalDate bookingDate, String capacityKey) {
+        return slotCapacityRepository.reserve(rules.getAmenityId(), bookingDate, capacityKey,
+                rules.getAmenityType().name(), rules.getCapacity()) == 1;
+    }
+
+    private static Timer phaseTimer(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder("booking.create.phase")
+                .description("Time spent in each phase of creating a booking")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Records the time since phaseStart and returns now, the start of the next phase
+    private static long record(Timer timer, long phaseStart) {
+        long now = System.nanoTime();
+        timer.record(now - phaseStart, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    // Only day-based bookings have no time slot, so this holds even if the rules changed since
+    private String capacityKey(String timeSlot) {
+        return timeSlot != null ? timeSlot : WHOLE_DAY_SLOT;
+    }
+}
@@ -0,0 +1,320 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.event.BookingChangedEvent;
+import com.apartmentcommunity.booking.model.AmenityType;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.BookingDailyStatsId;
+import com.apartmentcommunity.booking.model.BookingUserStats;
+import com.apartmentcommunity.booking.repository.AmenityStatsCount;
+import com.apartmentcommunity.booking.repository.BookingDailyStatsRepository;
+import com.apartmentcommunity.booking.repository.BookingUserStatsRepository;
+import com.apartmentcommunity.booking.repository.DailyStatsCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking statistics served from rollups instead of the bookings table.
+ *
+ * The booking_daily_stats and booking_user_stats rows are updated in the same transaction
+ * that creates or cancels a booking: its changes are summed and written just before commit
+ * in one statement per table, so a booking series costs two statements rather than two
+ * per occurrence. Daily rows are kept per time slot, so they lock no more than the
+ * slot_capacity row the booking already holds.
+ *
+ * On top of them this service keeps running totals (per amenity and per day) in memory, so
+ * the summary is answered without touching the database. The totals are applied after
+ * commit and rebuilt from the rollups periodically, which also picks up other replicas. As
+ * with {@link SlotOccupancyIndex}, amenities and days that change while a rebuild runs are
+ * reloaded after the swap until a pass sees no further changes.
+ */
+@Service
+public class BookingStatsService {
+    public enum Bucket { DAY, WEEK, MONTH }
+
+    // Same key as slot_capacity uses for day-based amenities
+    private static final String WHOLE_DAY_SLOT = "";
+
+    private final BookingDailyStatsRepository dailyStatsRepository;
+    private final BookingUserStatsRepository userStatsRepository;
+
+    private volatile Totals totals = new Totals(LocalDate.now(), LocalDate.now());
+    // Keys changed since the running rebuild started; null when none is running
+    private volatile Changes changedDuringRefresh;
+
+    @Autowired
+    public BookingStatsService(BookingDailyStatsRepository dailyStatsRepository,
+                               BookingUserStatsRepository userStatsRepository) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.userStatsRepository = userStatsRepository;
+    }
+
+    /**
+     * Collects the change for the rollup write at commit; ignored outside a transaction,
+     * like the after-commit listeners.
+     */
+    @EventListener
+    public void recordBookingChange(BookingChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PendingRollup pending = (PendingRollup) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingRollup();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(event.getBooking(), event.getDelta());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking booking = event.getBooking();
+        totals.add(booking.getAmenityId(), booking.getAmenityType(), booking.getBookingDate(), event.getDelta());
+        // Marked after the totals were applied, so the reload that follows includes this change
+        Changes changes = changedDuringRefresh;
+        if (changes != null) {
+            changes.amenityIds.add(booking.getAmenityId());
+            changes.dates.add(booking.getBookingDate());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the per-amenity totals and the counts for today and tomorrow (so the day can
+     * roll over before the next rebuild) and swaps them in.
+     */
+    @Scheduled(fixedDelayString = "${booking.stats.refresh-interval-ms:300000}",
+               initialDelayString = "${booking.stats.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        LocalDate today = LocalDate.now();
+        changedDuringRefresh = new Changes();
+
+        Totals rebuilt = new Totals(today, today.plusDays(1));
+        for (AmenityStatsCount count : dailyStatsRepository.countByAmenity()) {
+            rebuilt.setAmenity(count);
+        }
+        for (DailyStatsCount count : dailyStatsRepository.countByDayBetween(rebuilt.firstDay, rebuilt.lastDay)) {
+            rebuilt.byDay.computeIfAbsent(count.getBookingDate(), k -> new AtomicLong()).addAndGet(count.getBookingCount());
+        }
+        rebuilt.activeUsers = userStatsRepository.countByBookingCountGreaterThan(0);
+        totals = rebuilt;
+
+        while (true) {
+            Changes changes = changedDuringRefresh;
+            if (changes.amenityIds.isEmpty() && changes.dates.isEmpty()) {
+                changedDuringRefresh = null;
+                return;
+            }
+            changedDuringRefresh = new Changes();
+            reload(rebuilt, changes);
+        }
+    }
+
+    /**
+     * Current totals. activeUsers is as of the last rebuild.
+     */
+    public Map<String, Object> getSummary() {
+        Totals current = totals;
+
+        long total = 0;
+        Map<String, Long> byAmenityType = new TreeMap<>();
+        Map<Long, Long> byAmenity = new TreeMap<>();
+        for (Map.Entry<Long, AtomicLong> entry : current.byAmenity.entrySet()) {
+            long count = entry.getValue().get();
+            total += count;
+            byAmenity.put(entry.getKey(), count);
+            AmenityType type = current.amenityTypes.get(entry.getKey());
+            if (type != null) {
+                byAmenityType.merge(type.name(), count, Long::sum);
+            }
+        }
+        AtomicLong today = current.byDay.get(LocalDate.now());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalBookings", total);
+        summary.put("bookingsToday", today != null ? today.get() : 0L);
+        summary.put("activeUsers", current.activeUsers);
+        summary.put("bookingsByAmenityType", byAmenityType);
+        summary.put("bookingsByAmenity", byAmenity);
+        return summary;
+    }
+
+    /**
+     * Booking counts per day, week (starting Monday) or month between two dates, optionally
+     * restricted to one amenity or amenity type.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTimeSeries(LocalDate from, LocalDate to, Bucket bucket,
+                                                   Long amenityId, AmenityType amenityType) {
+        Map<LocalDate, Map<AmenityType, Long>> buckets = new TreeMap<>();
+        for (DailyStatsCount count : dailyStatsRepository.countByDayBetween(from, to)) {
+            if ((amenityId != null && !amenityId.equals(count.getAmenityId()))
+                    || (amenityType != null && amenityType != count.getAmenityType())) {
+                continue;
+            }
+            buckets.computeIfAbsent(bucketStart(count.getBookingDate(), bucket), d -> new EnumMap<>(AmenityType.class))
+                    .merge(count.getAmenityType(), count.getBookingCount(), Long::sum);
+        }
+
+        List<Map<String, Object>> series = new ArrayList<>(buckets.size());
+        buckets.forEach((start, byType) -> {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("start", start.toString());
+            point.put("bookings", byType.values().stream().mapToLong(Long::longValue).sum());
+            point.put("byAmenityType", byType);
+            series.add(point);
+        });
+        return series;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingUserStats> getTopUsers(int limit) {
+        return userStatsRepository.findTopUsers(PageRequest.of(0, limit));
+    }
+
+    private static LocalDate bucketStart(LocalDate date, Bucket bucket) {
+        switch (bucket) {
+            case WEEK:
+                return date.minusDays(date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    // Replaces the totals of the changed amenities and days with their current rollups
+    private void reload(Totals rebuilt, Changes changes) {
+        if (!changes.amenityIds.isEmpty()) {
+            Set<Long> missing = new HashSet<>(changes.amenityIds);
+            for (AmenityStatsCount count : dailyStatsRepository.countByAmenity(changes.amenityIds)) {
+                rebuilt.setAmenity(count);
+                missing.remove(count.getAmenityId());
+            }
+            for (Long amenityId : missing) {
+                rebuilt.byAmenity.put(amenityId, new AtomicLong());
+            }
+        }
+        for (LocalDate date : changes.dates) {
+            if (date.isBefore(rebuilt.firstDay) || date.isAfter(rebuilt.lastDay)) {
+                continue;
+            }
+            long count = 0;
+            for (DailyStatsCount daily : dailyStatsRepository.countByDayBetween(date, date)) {
+                count += daily.getBookingCount();
+            }
+            rebuilt.byDay.put(date, new AtomicLong(count));
+        }
+    }
+
+    private final class PendingRollup implements TransactionSynchronization {
+        private final Map<BookingDailyStatsId, Integer> dailyDeltas = new HashMap<>();
+        private final Map<BookingDailyStatsId, AmenityType> amenityTypes = new HashMap<>();
+        private final Map<Long, Integer> userDeltas = new HashMap<>();
+
+        private void add(Booking booking, int delta) {
+            BookingDailyStatsId key = new BookingDailyStatsId(booking.getAmenityId(), booking.getBookingDate(),
+                    booking.getTimeSlot() != null ? booking.getTimeSlot() : WHOLE_DAY_SLOT);
+            dailyDeltas.merge(key, delta, Integer::sum);
+            amenityTypes.put(key, booking.getAmenityType());
+            userDeltas.merge(booking.getUserId(), delta, Integer::sum);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            List<Long> amenityIds = new ArrayList<>();
+            List<LocalDate> bookingDates = new ArrayList<>();
+            List<String> timeSlots = new ArrayList<>();
+            List<String> types = new ArrayList<>();
+            List<Integer> deltas = new ArrayList<>();
+            dailyDeltas.forEach((key, delta) -> {
+                if (delta != 0) {
+                    amenityIds.add(key.getAmenityId());
+                    bookingDates.add(key.getBookingDate());
+                    timeSlots.add(key.getTimeSlot());
+                    types.add(amenityTypes.get(key).name());
+                    deltas.add(delta);
+                }
+            });
+            if (!amenityIds.isEmpty()) {
+                dailyStatsRepository.incrementAll(amenityIds, bookingDates, timeSlots, types, deltas);
+            }
+
+            List<Long> userIds = new ArrayList<>();
+            List<Integer> userDeltaList = new ArrayList<>();
+            userDeltas.forEach((userId, delta) -> {
+                if (delta != 0) {
+                    userIds.add(userId);
+                    userDeltaList.add(delta);
+                }
+            });
+            if (!userIds.isEmpty()) {
+                userStatsRepository.incrementAll(userIds, userDeltaList);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BookingStatsService.this);
+        }
+    }
+
+    private static class Totals {
+        private final LocalDate firstDay;
+        private final LocalDate lastDay;
+        private final Map<Long, AtomicLong> byAmenity = new ConcurrentHashMap<>();
+        private final Map<Long, AmenityType> amenityTypes = new ConcurrentHashMap<>();
+        private final Map<LocalDate, AtomicLong> byDay = new ConcurrentHashMap<>();
+        private volatile long activeUsers;
+
+        private Totals(LocalDate firstDay, LocalDate lastDay) {
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+        }
+
+        private void add(Long amenityId, AmenityType amenityType, LocalDate date, long delta) {
+            byAmenity.computeIfAbsent(amenityId, k -> new AtomicLong()).addAndGet(delta);
+            if (amenityType != null) {
+                amenityTypes.putIfAbsent(amenityId, amenityType);
+            }
+            byDay.computeIfAbsent(date, k -> new AtomicLong()).addAndGet(delta);
+        }
+
+        private void setAmenity(AmenityStatsCount count) {
+            byAmenity.put(count.getAmenityId(), new AtomicLong(count.getBookingCount()));
+            amenityTypes.put(count.getAmenityId(), count.getAmenityType());
+        }
+    }
+
+    private static class Changes {
+        private final Set<Long> amenityIds = ConcurrentHashMap.newKeySet();
+        private final Set<LocalDate> dates = ConcurrentHashMap.newKeySet();
+    }
+}
@@ -1,57 +1,117 @@
 package com.apartmentcommunity.booking.service;
 
+import com.apartmentcommunity.booking.config.RabbitMQConfig;
 import com.apartmentcommunity.booking.model.Booking;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import com.apartmentcommunity.booking.model.OutboxEvent;
+import com.apartmentcommunity.booking.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Records booking events in the outbox as part of the caller's transaction.
+ * {@link OutboxRelay} publishes them to RabbitMQ once committed, continuing the trace
+ * stored with each event.
+ *
+ * Every event gets a random eventId that stays the same across relay retries, so
+ * consumers can drop redeliveries.
+ */
 @Service
 public class NotificationPublisher {
-    private static final String EXCHANGE_NAME = "booking_events";
     private static final String BOOKING_CREATED_ROUTING_KEY = "booking.created";
     private static final String BOOKING_CANCELLED_ROUTING_KEY = "booking.cancelled";
+    private static final String TRACE_PARENT = "traceparent";
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Tracer tracer;
+    private final Propagator propagator;
 
     @Autowired
-    public NotificationPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public NotificationPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                                 Tracer tracer, Propagator propagator) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.tracer = tracer;
+        this.propagator = propagator;
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishBookingCreated(Booking booking) {
-        try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", "BOOKING_CREATED");
-            event.put("bookingId", booking.getId());
-            event.put("amenityId", booking.getAmenityId());
-            event.put("userId", booking.getUserId());
-            event.put("slotStart", booking.getSlotStart().toString());
-            event.put("slotEnd", booking.getSlotEnd().toString());
-            
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, BOOKING_CREATED_ROUTING_KEY, event);
-        } catch (Exception e) {
-            // Log error but don't fail the booking if RabbitMQ is unavailable
-            System.err.println("Warning: Failed to publish booking created event: " + e.getMessage());
-        }
+        enqueue(BOOKING_CREATED_ROUTING_KEY, toEvent("BOOKING_CREATED", booking));
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishBookingCancelled(Booking booking) {
+        enqueue(BOOKING_CANCELLED_ROUTING_KEY, toEvent("BOOKING_CANCELLED", booking));
+    }
+
+    /**
+     * One event per booking, written to the outbox in a single insert batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishBookingsCreated(List<Booking> bookings) {
+        enqueueAll(BOOKING_CREATED_ROUTING_KEY, "BOOKING_CREATED", bookings);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishBookingsCancelled(List<Booking> bookings) {
+        enqueueAll(BOOKING_CANCELLED_ROUTING_KEY, "BOOKING_CANCELLED", bookings);
+    }
+
+    private Map<String, Object> toEvent(String eventType, Booking booking) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventId", UUID.randomUUID().toString());
+        event.put("eventType", eventType);
+        event.put("bookingId", booking.getId());
+        event.put("amenityId", booking.getAmenityId());
+        event.put("userId", booking.getUserId());
+        event.put("slotStart", booking.getSlotStart().toString());
+        event.put("slotEnd", booking.getSlotEnd().toString());
+        return event;
+    }
+
+    private void enqueue(String routingKey, Map<String, Object> event) {
+        outboxEventRepository.save(toOutboxEvent(routingKey, event, traceParent()));
+    }
+
+    private void enqueueAll(String routingKey, String eventType, List<Booking> bookings) {
+        String traceParent = traceParent();
+        List<OutboxEvent> outboxEvents = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            outboxEvents.add(toOutboxEvent(routingKey, toEvent(eventType, booking), traceParent));
+        }
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    private OutboxEvent toOutboxEvent(String routingKey, Map<String, Object> event, String traceParent) {
         try {
-            Map<String, Object> event = new HashMap<>();
-            event.put("eventType", "BOOKING_CANCELLED");
-            event.put("bookingId", booking.getId());
-            event.put("amenityId", booking.getAmenityId());
-            event.put("userId", booking.getUserId());
-            event.put("slotStart", booking.getSlotStart().toString());
-            event.put("slotEnd", booking.getSlotEnd().toString());
-            
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, BOOKING_CANCELLED_ROUTING_KEY, event);
-        } catch (Exception e) {
-            // Log error but don't fail the cancellation if RabbitMQ is unavailable
-            System.err.println("Warning: Failed to publish booking cancelled event: " + e.getMessage());
+            return new OutboxEvent(
+                    RabbitMQConfig.EXCHANGE_NAME, routingKey, objectMapper.writeValueAsString(event), traceParent);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize booking event", e);
+        }
+    }
+
+    private String traceParent() {
+        Span span = tracer.currentSpan();
+        if (span == null) {
+            return null;
         }
+        Map<String, String> carrier = new HashMap<>(4);
+        propagator.inject(span.context(), carrier, Map::put);
+        return carrier.get(TRACE_PARENT);
     }
 }
@@ -0,0 +1,199 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.model.OutboxEvent;
+import com.apartmentcommunity.booking.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to RabbitMQ in the background.
+ *
+ * Each run claims a batch of due rows with FOR UPDATE SKIP LOCKED (so replicas never publish
+ * the same row concurrently), publishes them all and then waits for the publisher confirms.
+ * Confirmed rows are marked dispatched; the rest are rescheduled with exponential backoff.
+ * Delivery is at-least-once: a crash between confirm and commit republishes the batch.
+ *
+ * outbox.publish times each message from send to broker confirm; outbox.lag is how long
+ * a confirmed event sat in the outbox after it was written.
+ *
+ * Each send runs in an "outbox.relay" observation whose parent is the traceparent stored
+ * with the event, so the publish and everything downstream of it join the trace of the
+ * request that produced the event.
+ */
+@Service
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final TypeReference<HashMap<String, Object>> EVENT_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final int retentionHours;
+    private final Timer publishTimer;
+    private final Timer lagTimer;
+    private final Counter failedCounter;
+    private final ObservationRegistry observationRegistry;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                       @Value("${booking.outbox.initial-backoff-ms:1000}") long initialBackoffMs,
+                       @Value("${booking.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+                       @Value("${booking.outbox.retention-hours:24}") int retentionHours,
+                       MeterRegistry meterRegistry,
+                       ObservationRegistry observationRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retentionHours = retentionHours;
+        this.observationRegistry = observationRegistry;
+        this.publishTimer = Timer.builder("outbox.publish")
+                .description("Time from sending an outbox event to its publisher confirm")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.lag")
+                .description("Time from writing an outbox event to its confirmed publication")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.publish.failures")
+                .description("Publish attempts that were rejected, nacked or not confirmed in time")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            // Keep draining while full batches come back
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            logger.warn("Outbox relay run failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.cleanup-interval-ms:3600000}")
+    public void purgeDispatched() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deleteDispatchedBefore(LocalDateTime.now().minusHours(retentionHours)));
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockDueEvents(LocalDateTime.now(), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Publish the whole batch first so the confirms are awaited concurrently
+        List<CorrelationData> confirms = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            CorrelationData correlationData = new CorrelationData(String.valueOf(event.getId()));
+            long sentAt = System.nanoTime();
+            correlationData.getFuture().thenAccept(confirm -> {
+                if (confirm.isAck()) {
+                    publishTimer.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+                }
+            });
+            try {
+                Map<String, Object> payload = objectMapper.readValue(event.getPayload(), EVENT_TYPE);
+                // The event id doubles as the AMQP message id so consumers can dedup without parsing
+                Object eventId = payload.get("eventId");
+                relayObservation(event).observe(() -> rabbitTemplate.convertAndSend(
+                        event.getExchange(), event.getRoutingKey(), payload, message -> {
+                            if (eventId != null) {
+                                message.getMessageProperties().setMessageId(eventId.toString());
+                            }
+                            return message;
+                        }, correlationData));
+                confirms.add(correlationData);
+            } catch (Exception e) {
+                confirms.add(null);
+                scheduleRetry(event, e.getMessage());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (int i = 0; i < events.size(); i++) {
+            CorrelationData correlationData = confirms.get(i);
+            if (correlationData == null) {
+                continue;
+            }
+            OutboxEvent event = events.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm = correlationData.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    lagTimer.record(Duration.between(event.getCreatedAt(), now));
+                    event.setDispatchedAt(now);
+                    event.setLastError(null);
+                } else {
+                    scheduleRetry(event, "nack: " + confirm.getReason());
+                }
+            } catch (Exception e) {
+                scheduleRetry(event, "no confirm: " + e);
+            }
+        }
+        return events.size();
+    }
+
+    private Observation relayObservation(OutboxEvent event) {
+        ReceiverContext<OutboxEvent> context = new ReceiverContext<>(
+                (carrier, key) -> "traceparent".equals(key) ? carrier.getTraceParent() : null);
+        context.setCarrier(event);
+        return Observation.createNotStarted("outbox.relay", () -> context, observationRegistry)
+                .contextualName(event.getRoutingKey() + " relay")
+                .lowCardinalityKeyValue("exchange", event.getExchange())
+                .highCardinalityKeyValue("outbox.id", String.valueOf(event.getId()))
+                .highCardinalityKeyValue("outbox.attempt", String.valueOf(event.getAttempts() + 1));
+    }
+
+    private void scheduleRetry(OutboxEvent event, String error) {
+        int attempts = event.getAttempts() + 1;
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoff)));
+        event.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        failedCounter.increment();
+        logger.warn("Failed to publish outbox event {} (attempt {}): {}", event.getId(), attempts, error);
+    }
+}
@@ -0,0 +1,153 @@
+package com.apartmentcommunity.booking.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache of session lookups keyed by token.
+ *
+ * Valid sessions are kept for {@code session.cache.ttl-seconds}; tokens user-service
+ * rejected are remembered for the shorter {@code session.cache.negative-ttl-seconds}
+ * so a flood of bad tokens does not reach user-service either. Entries are dropped
+ * early when user-service broadcasts that a session was deleted.
+ */
+@Service
+public class SessionCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Queued> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SessionCache(@Value("${session.cache.ttl-seconds:30}") long ttlSeconds,
+                        @Value("${session.cache.negative-ttl-seconds:5}") long negativeTtlSeconds,
+                        @Value("${session.cache.max-size:10000}") int maxSize,
+                        MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.negativeTtlMillis = negativeTtlSeconds * 1000;
+        this.maxSize = maxSize;
+
+        FunctionCounter.builder("session.cache.requests", hits, LongAdder::sum)
+            .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("session.cache.requests", negativeHits, LongAdder::sum)
+            .tag("result", "negative_hit").register(meterRegistry);
+        FunctionCounter.builder("session.cache.requests", misses, LongAdder::sum)
+            .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("session.cache.evictions", evictions, LongAdder::sum)
+            .register(meterRegistry);
+        Gauge.builder("session.cache.size", entries, Map::size)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached lookup for the token, or runs the loader on a miss and caches
+     * its result. Exceptions from the loader propagate and are not cached.
+     */
+    public Optional<UserServiceClient.SessionInfo> get(String token,
+            Function<String, Optional<UserServiceClient.SessionInfo>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(token);
+        if (entry != null && entry.expiresAt > now) {
+            if (entry.session != null) {
+                hits.increment();
+            } else {
+                negativeHits.increment();
+            }
+            return Optional.ofNullable(entry.session);
+        }
+
+        misses.increment();
+        long invalidationsBefore = invalidations.get();
+        Optional<UserServiceClient.SessionInfo> loaded = loader.apply(token);
+
+        // Skip caching if an invalidation raced with the remote lookup
+        if (invalidations.get() == invalidationsBefore) {
+            put(token, loaded.orElse(null), now);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String token) {
+        invalidations.incrementAndGet();
+        entries.remove(token);
+    }
+
+    /**
+     * Drops every cached session of the user. Linear in the cache size; only used for
+     * user-wide revocations, which are rare.
+     */
+    public void invalidateUser(Long userId) {
+        invalidations.incrementAndGet();
+        entries.values().removeIf(entry -> entry.session != null && userId.equals(entry.session.getUserId()));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Evicts in insertion order, which for a fixed TTL is expiry order, once the cache is
+     * full. Every put queues one node; nodes whose entry was since replaced or invalidated
+     * are skipped, so the map and the queue both stay within {@code maxSize} and a put
+     * costs O(1) amortized.
+     */
+    private void put(String token, UserServiceClient.SessionInfo session, long now) {
+        long ttl = session != null ? ttlMillis : negativeTtlMillis;
+        Entry entry = new Entry(session, now + ttl);
+        entries.put(token, entry);
+        insertionOrder.add(new Queued(token, entry));
+
+        queued.incrementAndGet();
+        while (queued.get() > maxSize) {
+            Queued oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            queued.decrementAndGet();
+            if (entries.remove(oldest.token, oldest.entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final UserServiceClient.SessionInfo session;
+        private final long expiresAt;
+
+        private Entry(UserServiceClient.SessionInfo session, long expiresAt) {
+            this.session = session;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Queued {
+        private final String token;
+        private final Entry entry;
+
+        private Queued(String token, Entry entry) {
+            this.token = token;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.apartmentcommunity.booking.service;
+
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SessionEventListener {
+    private final SessionCache sessionCache;
+    private final SessionRevocations revocations;
+    private final UserServiceClient userServiceClient;
+
+    @Autowired
+    public SessionEventListener(SessionCache sessionCache, SessionRevocations revocations,
+                                UserServiceClient userServiceClient) {
+        this.sessionCache = sessionCache;
+        this.revocations = revocations;
+        this.userServiceClient = userServiceClient;
+    }
+
+    @RabbitListener(queues = "#{sessionEventsQueue.name}")
+    public void handleSessionEvent(Map<String, Object> event) {
+        if ("USER_SESSIONS_REVOKED".equals(event.get("eventType"))) {
+            Long userId = ((Number) event.get("userId")).longValue();
+            revocations.revokeUser(userId, revokedAtMillis(event), ((Number) event.get("expiresAt")).longValue());
+            sessionCache.invalidateUser(userId);
+            return;
+        }
+
+        Object jti = event.get("jti");
+        if (jti != null) {
+            revocations.revokeSession(jti.toString(), ((Number) event.get("expiresAt")).longValue());
+        }
+        Object token = event.get("token");
+        if (token != null) {
+            sessionCache.invalidate(token.toString());
+        }
+    }
+
+    /**
+     * Catches up on revocations broadcast while this instance was down or the broker was unreachable.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${session.revocation.sync-interval-ms:300000}",
+               initialDelayString = "${session.revocation.sync-interval-ms:300000}")
+    public void syncRevocations() {
+        List<Map<String, Object>> active = userServiceClient.getRevocations();
+        for (Map<String, Object> revocation : active) {
+            long expiresAt = ((Number) revocation.get("expiresAt")).longValue();
+            Object jti = revocation.get("jti");
+            if (jti != null) {
+                revocations.revokeSession(jti.toString(), expiresAt);
+            } else if (revocation.get("userId") != null) {
+                revocations.revokeUser(((Number) revocation.get("userId")).longValue(),
+                        revokedAtMillis(revocation), expiresAt);
+            }
+        }
+    }
+
+    // Revocations from a user-service without millisecond times cover the whole of their second
+    private static long revokedAtMillis(Map<String, Object> revocation) {
+        Object millis = revocation.get("revokedAtMillis");
+        return millis != null
+                ? ((Number) millis).longValue()
+                : ((Number) revocation.get("revokedAt")).longValue() * 1000 + 999;
+    }
+}
@@ -0,0 +1,66 @@
+package com.apartmentcommunity.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked signed sessions, fed by user-service's revocation broadcasts
+ * and reconciled against its revocation list at startup and periodically.
+ *
+ * Entries are only needed until the tokens they cover expire, so the set stays as small
+ * as the number of logouts and role changes within one token lifetime.
+ */
+@Service
+public class SessionRevocations {
+    // jti -> token expiry (epoch seconds)
+    private final Map<String, Long> revokedSessions = new ConcurrentHashMap<>();
+    // userId -> tokens issued at or before this time (epoch milliseconds) are revoked
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+    // userId -> when that user-wide revocation can be forgotten (epoch seconds)
+    private final Map<Long, Long> revokedUsersExpiry = new ConcurrentHashMap<>();
+
+    public SessionRevocations(MeterRegistry meterRegistry) {
+        Gauge.builder("session.revocations.size", this, r -> r.revokedSessions.size() + r.revokedUsers.size())
+                .description("Revoked sessions and users held in memory")
+                .register(meterRegistry);
+    }
+
+    public void revokeSession(String jti, long expiresAt) {
+        revokedSessions.merge(jti, expiresAt, Math::max);
+    }
+
+    public void revokeUser(Long userId, long revokedAtMillis, long expiresAt) {
+        revokedUsers.merge(userId, revokedAtMillis, Math::max);
+        revokedUsersExpiry.merge(userId, expiresAt, Math::max);
+    }
+
+    /**
+     * Issue and revocation times are compared in milliseconds, so a token issued right after a
+     * user-wide revocation, such as a login after a role change, stays valid.
+     */
+    public boolean isRevoked(String jti, Long userId, long issuedAtMillis) {
+        if (revokedSessions.containsKey(jti)) {
+            return true;
+        }
+        Long revokedBefore = revokedUsers.get(userId);
+        return revokedBefore != null && issuedAtMillis <= revokedBefore;
+    }
+
+    @Scheduled(fixedDelayString = "${session.revocation.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis() / 1000;
+        revokedSessions.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsersExpiry.entrySet().removeIf(entry -> {
+            if (entry.getValue() > now) {
+                return false;
+            }
+            revokedUsers.remove(entry.getKey());
+            return true;
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.apartmentcommunity.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verifies the signed session tokens issued by user-service
+ * ({@code v1.<base64url(json claims)>.<base64url(HMAC-SHA256)>}) without a network call:
+ * signature, expiry and the local revocation set.
+ */
+@Service
+public class SessionTokenVerifier {
+    public static final String VERSION_PREFIX = "v1.";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final ObjectMapper objectMapper;
+    private final SessionRevocations revocations;
+
+    @Autowired
+    public SessionTokenVerifier(@Value("${session.token.secret}") String secret,
+                                ObjectMapper objectMapper,
+                                SessionRevocations revocations) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("session.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(secretBytes, HMAC_ALGORITHM);
+        this.objectMapper = objectMapper;
+        this.revocations = revocations;
+    }
+
+    public static boolean isSigned(String token) {
+        return token != null && token.startsWith(VERSION_PREFIX);
+    }
+
+    // Tokens issued before iat_ms existed count from the start of their second, so revocations in that second cover them
+    private static long issuedAtMillis(Map<String, Object> claims) {
+        Object millis = claims.get("iat_ms");
+        return millis != null ? ((Number) millis).longValue() : ((Number) claims.get("iat")).longValue() * 1000;
+    }
+
+    /**
+     * @return the session for a valid token, empty if the token is forged, expired or revoked
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<UserServiceClient.SessionInfo> verify(String token) {
+        int separator = token.lastIndexOf('.');
+        if (separator <= VERSION_PREFIX.length()) {
+            return Optional.empty();
+        }
+        try {
+            String signingInput = token.substring(0, separator);
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            if (!MessageDigest.isEqual(mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8)), signature)) {
+                return Optional.empty();
+            }
+
+            Map<String, Object> claims = objectMapper.readValue(
+                    Base64.getUrlDecoder().decode(signingInput.substring(VERSION_PREFIX.length())), Map.class);
+            long now = System.currentTimeMillis() / 1000;
+            long expiresAt = ((Number) claims.get("exp")).longValue();
+            Long userId = ((Number) claims.get("sub")).longValue();
+            if (expiresAt <= now
+                    || revocations.isRevoked((String) claims.get("jti"), userId, issuedAtMillis(claims))) {
+                return Optional.empty();
+            }
+
+            UserServiceClient.SessionInfo sessionInfo = new UserServiceClient.SessionInfo();
+            sessionInfo.setUserId(userId);
+            sessionInfo.setUsername((String) claims.get("usr"));
+            sessionInfo.setRole((String) claims.getOrDefault("role", "USER"));
+            return Optional.of(sessionInfo);
+        } catch (Exception e) {
+            // Malformed token
+            return Optional.empty();
+        }
+    }
+}
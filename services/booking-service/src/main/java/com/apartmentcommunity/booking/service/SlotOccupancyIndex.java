@@ -0,0 +1,202 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.event.BookingChangedEvent;
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.model.SlotCodec;
+import com.apartmentcommunity.booking.repository.BookingRepository;
+import com.apartmentcommunity.booking.repository.SlotCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory booking counts per amenity, day and time slot.
+ *
+ * Each (amenity, day) pair maps to one AtomicIntegerArray with a counter for every
+ * 15-minute bucket of the day (indexed by slot ordinal, see {@link SlotCodec}) plus a
+ * whole-day total in the last cell. The index
+ * covers a rolling window around today and is rebuilt from the database
+ * periodically, which also picks up bookings made by other replicas. Between
+ * rebuilds it is kept current by committed creates and cancellations. Dates
+ * outside the window are answered from the database.
+ *
+ * A change that commits while a rebuild runs may be missing from the rebuilt counts or
+ * already in them, so the days it touched are reloaded one by one after the swap, until a
+ * pass sees no further changes.
+ *
+ * Every (amenity, day) pair also has a version that changes whenever its counts may have
+ * changed, so callers can tell that a day is unchanged without reading it.
+ */
+@Service
+public class SlotOccupancyIndex {
+    public static final int BUCKET_MINUTES = SlotCodec.MINUTES_PER_ORDINAL;
+    public static final int BUCKETS_PER_DAY = SlotCodec.ORDINALS_PER_DAY;
+    public static final int DAY_TOTAL = BUCKETS_PER_DAY;
+
+    private final BookingRepository bookingRepository;
+    private final int windowDays;
+
+    private volatile Map<Long, AtomicIntegerArray> occupancy = new ConcurrentHashMap<>();
+    private volatile LocalDate windowStart;
+    private volatile LocalDate windowEnd;
+    private volatile Versions versions = new Versions(System.currentTimeMillis());
+    // Days changed since the running rebuild started; null when none is running
+    private volatile Set<Long> changedDuringRefresh;
+
+    @Autowired
+    public SlotOccupancyIndex(BookingRepository bookingRepository,
+                              @Value("${booking.occupancy.window-days:60}") int windowDays) {
+        this.bookingRepository = bookingRepository;
+        this.windowDays = windowDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    /**
+     * Rebuilds the index for [yesterday, today + window-days] and swaps it in.
+     */
+    @Scheduled(fixedDelayString = "${booking.occupancy.refresh-interval-ms:300000}",
+               initialDelayString = "${booking.occupancy.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        LocalDate from = LocalDate.now().minusDays(1);
+        LocalDate to = LocalDate.now().plusDays(windowDays);
+
+        changedDuringRefresh = ConcurrentHashMap.newKeySet();
+        Map<Long, AtomicIntegerArray> rebuilt = new ConcurrentHashMap<>();
+        for (SlotCount slotCount : bookingRepository.countSlotsBetween(from, to)) {
+            AtomicIntegerArray counts = rebuilt.computeIfAbsent(
+                    key(slotCount.getAmenityId(), slotCount.getBookingDate()), k -> newCounts());
+            add(counts, slotCount.getSlotOrdinal(), slotCount.getBookingCount().intValue());
+        }
+
+        occupancy = rebuilt;
+        windowStart = from;
+        windowEnd = to;
+        // Swapped after the counts, so a version read before them is never newer than they are
+        versions = new Versions(versions.generation + 1);
+
+        while (true) {
+            Set<Long> changed = changedDuringRefresh;
+            if (changed.isEmpty()) {
+                changedDuringRefresh = null;
+                return;
+            }
+            changedDuringRefresh = ConcurrentHashMap.newKeySet();
+            for (Long key : changed) {
+                Long amenityId = key >>> 32;
+                LocalDate date = LocalDate.ofEpochDay((int) key.longValue());
+                if (inWindow(date)) {
+                    occupancy.put(key, new AtomicIntegerArray(load(amenityId, date)));
+                    versions.changes.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+                }
+            }
+        }
+    }
+
+    // Ahead of the other after-commit listeners, which read the updated counts
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking booking = event.getBooking();
+        Long key = key(booking.getAmenityId(), booking.getBookingDate());
+        if (inWindow(booking.getBookingDate())) {
+            AtomicIntegerArray counts = occupancy.computeIfAbsent(key, k -> newCounts());
+            add(counts, booking.getSlotOrdinal(), event.getDelta());
+        }
+        // Bumped after the counts, and for dates answered from the database as well
+        versions.changes.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        // Marked after the counts were applied, so the reload that follows includes this change
+        Set<Long> changed = changedDuringRefresh;
+        if (changed != null) {
+            changed.add(key);
+        }
+    }
+
+    /**
+     * Opaque version of the day's counts. Read it before {@link #getOccupancy}: counts
+     * read afterwards are at least as new as the version says.
+     */
+    public String getVersion(Long amenityId, LocalDate date) {
+        Versions current = versions;
+        AtomicLong changes = current.changes.get(key(amenityId, date));
+        return current.generation + "." + (changes != null ? changes.get() : 0);
+    }
+
+    /**
+     * Returns a snapshot of the bucket counts for the day; index {@link #DAY_TOTAL} holds
+     * the number of bookings for the whole day.
+     */
+    public int[] getOccupancy(Long amenityId, LocalDate date) {
+        int[] snapshot = new int[BUCKETS_PER_DAY + 1];
+        if (inWindow(date)) {
+            AtomicIntegerArray counts = occupancy.get(key(amenityId, date));
+            if (counts != null) {
+                for (int i = 0; i < snapshot.length; i++) {
+                    snapshot[i] = counts.get(i);
+                }
+            }
+            return snapshot;
+        }
+        return load(amenityId, date);
+    }
+
+    private int[] load(Long amenityId, LocalDate date) {
+        int[] counts = new int[BUCKETS_PER_DAY + 1];
+        for (SlotCount slotCount : bookingRepository.countSlotsForAmenityAndDate(amenityId, date)) {
+            int count = slotCount.getBookingCount().intValue();
+            if (slotCount.getSlotOrdinal() != null) {
+                counts[slotCount.getSlotOrdinal()] += count;
+            }
+            counts[DAY_TOTAL] += count;
+        }
+        return counts;
+    }
+
+    private boolean inWindow(LocalDate date) {
+        LocalDate start = windowStart;
+        LocalDate end = windowEnd;
+        return start != null && !date.isBefore(start) && !date.isAfter(end);
+    }
+
+    private static void add(AtomicIntegerArray counts, Short slotOrdinal, int delta) {
+        if (slotOrdinal != null) {
+            counts.addAndGet(slotOrdinal, delta);
+        }
+        counts.addAndGet(DAY_TOTAL, delta);
+    }
+
+    private static AtomicIntegerArray newCounts() {
+        return new AtomicIntegerArray(BUCKETS_PER_DAY + 1);
+    }
+
+    private static Long key(Long amenityId, LocalDate date) {
+        return (amenityId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    // Change counts since the rebuild that started this generation
+    private static final class Versions {
+        private final long generation;
+        private final Map<Long, AtomicLong> changes = new ConcurrentHashMap<>();
+
+        private Versions(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.apartmentcommunity.booking.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket per user for booking attempts.
+ *
+ * A user may make {@code burst} attempts back to back and then one more every
+ * 60 / {@code refill-per-minute} seconds. Buckets are spread over a fixed number of
+ * stripes, each a small LRU map behind its own lock, so different users rarely contend
+ * and memory stays bounded. A full stripe forgets its least recently seen user, which at
+ * worst hands that user a fresh burst.
+ */
+@Service
+public class UserRateLimiter {
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final double burst;
+    private final double tokensPerNano;
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public UserRateLimiter(@Value("${booking.admission.user.burst:5}") int burst,
+                           @Value("${booking.admission.user.refill-per-minute:30}") int refillPerMinute,
+                           @Value("${booking.admission.user.stripes:64}") int stripeCount,
+                           @Value("${booking.admission.user.max-users-per-stripe:1024}") int maxUsersPerStripe,
+                           MeterRegistry meterRegistry) {
+        if (burst < 1 || refillPerMinute < 1) {
+            throw new IllegalArgumentException("booking.admission.user burst and refill-per-minute must be positive");
+        }
+        this.burst = burst;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+
+        // Rounded down to a power of two so a mask picks the stripe
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount))];
+        this.stripeMask = stripes.length - 1;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(maxUsersPerStripe);
+        }
+
+        FunctionCounter.builder("booking.admission.rejected", rejected, LongAdder::sum)
+            .tag("reason", "user_rate")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from the user's bucket. Returns 0 if there was one, otherwise the
+     * nanoseconds until the next token is due; nothing is taken then.
+     */
+    public long tryAcquire(Long userId) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[stripeIndex(userId)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(userId);
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+                stripe.put(userId, bucket);
+            } else {
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+                bucket.refilledAt = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            rejected.increment();
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    private int stripeIndex(Long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & stripeMask;
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    // Access-ordered, so the eldest entry is the user seen least recently
+    private static final class Stripe extends LinkedHashMap<Long, Bucket> {
+        private final int maxUsers;
+
+        private Stripe(int maxUsers) {
+            super(16, 0.75f, true);
+            this.maxUsers = maxUsers;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Bucket> eldest) {
+            return size() > maxUsers;
+        }
+    }
+}
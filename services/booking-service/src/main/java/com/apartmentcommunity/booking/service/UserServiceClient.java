@@ -1,5 +1,14 @@
 package com.apartmentcommunity.booking.service;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -7,24 +16,83 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Calls to user-service. Every request goes through the user-service bulkhead and circuit
+ * breaker (see UserServiceClientConfig); when either rejects a call it fails immediately
+ * and is handled like any other transport error.
+ *
+ * Signed session tokens are verified locally and never reach user-service; only legacy
+ * opaque tokens are still resolved remotely (through the session cache).
+ *
+ * Every call is timed as user.service.requests, tagged with the operation and its
+ * outcome (success, client_error, rejected or error).
+ */
 @Service
 public class UserServiceClient {
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceClient.class);
+
     private final RestTemplate restTemplate;
     private final String userServiceUrl;
+    private final SessionCache sessionCache;
+    private final SessionTokenVerifier sessionTokenVerifier;
+    private final int batchSize;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final RequestTimers sessionTimers;
+    private final RequestTimers userTimers;
+    private final RequestTimers userBatchTimers;
+    private final RequestTimers revocationTimers;
 
-    public UserServiceClient(@Value("${user.service.url:http://localhost:8085}") String userServiceUrl) {
-        this.restTemplate = new RestTemplate();
+    public UserServiceClient(@Value("${user.service.url:http://localhost:8085}") String userServiceUrl,
+                             @Value("${user.service.batch-size:500}") int batchSize,
+                             SessionCache sessionCache,
+                             SessionTokenVerifier sessionTokenVerifier,
+                             @Qualifier("userServiceRestTemplate") RestTemplate restTemplate,
+                             @Qualifier("userServiceCircuitBreaker") CircuitBreaker circuitBreaker,
+                             @Qualifier("userServiceBulkhead") Bulkhead bulkhead,
+                             MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
         this.userServiceUrl = userServiceUrl;
+        this.batchSize = batchSize;
+        this.sessionCache = sessionCache;
+        this.sessionTokenVerifier = sessionTokenVerifier;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.sessionTimers = new RequestTimers("session", meterRegistry);
+        this.userTimers = new RequestTimers("user", meterRegistry);
+        this.userBatchTimers = new RequestTimers("user_batch", meterRegistry);
+        this.revocationTimers = new RequestTimers("revocations", meterRegistry);
     }
 
-    @SuppressWarnings("unchecked")
     public Optional<SessionInfo> getSessionInfo(String token) {
+        if (SessionTokenVerifier.isSigned(token)) {
+            return sessionTokenVerifier.verify(token);
+        }
+        try {
+            return sessionCache.get(token, this::fetchSessionInfo);
+        } catch (Exception e) {
+            // Transport failures are not cached so the next request retries user-service
+            logger.warn("Error calling user service: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<SessionInfo> fetchSessionInfo(String token) {
         try {
             String url = userServiceUrl + "/api/session/" + token;
-            ResponseEntity<Map<String, Object>> response = restTemplate.getForEntity(url, (Class<Map<String, Object>>) (Class<?>) Map.class);
+            ResponseEntity<Map<String, Object>> response = call(sessionTimers, () -> restTemplate.getForEntity(url, (Class<Map<String, Object>>) (Class<?>) Map.class));
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> body = response.getBody();
@@ -37,9 +105,6 @@ public class UserServiceClient {
         } catch (HttpClientErrorException e) {
             // Session not found or invalid
             return Optional.empty();
-        } catch (Exception e) {
-            System.err.println("Error calling user service: " + e.getMessage());
-            return Optional.empty();
         }
         return Optional.empty();
     }
@@ -48,29 +113,124 @@ public class UserServiceClient {
     public Optional<UserInfo> getUserInfo(Long userId) {
         try {
             String url = userServiceUrl + "/api/users/" + userId;
-            ResponseEntity<Map<String, Object>> response = restTemplate.getForEntity(url, (Class<Map<String, Object>>) (Class<?>) Map.class);
+            ResponseEntity<Map<String, Object>> response = call(userTimers, () -> restTemplate.getForEntity(url, (Class<Map<String, Object>>) (Class<?>) Map.class));
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> body = response.getBody();
-                UserInfo userInfo = new UserInfo();
-                userInfo.setId(((Number) body.get("id")).longValue());
-                userInfo.setUsername((String) body.get("username"));
-                userInfo.setName((String) body.get("name"));
-                userInfo.setFlatNo((String) body.get("flatNo"));
-                userInfo.setContactNumber((String) body.get("contactNumber"));
-                userInfo.setRole((String) body.getOrDefault("role", "USER"));
-                return Optional.of(userInfo);
+                return Optional.of(toUserInfo(response.getBody()));
             }
         } catch (HttpClientErrorException e) {
             // User not found
             return Optional.empty();
         } catch (Exception e) {
-            System.err.println("Error calling user service: " + e.getMessage());
+            logger.warn("Error calling user service: {}", e.getMessage());
             return Optional.empty();
         }
         return Optional.empty();
     }
 
+    /**
+     * Resolves many users with one request per {@code user.service.batch-size} distinct ids.
+     * Users that could not be resolved are simply absent from the returned map.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, UserInfo> getUserInfos(Collection<Long> userIds) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(userIds);
+        uniqueIds.remove(null);
+        Map<Long, UserInfo> users = new HashMap<>(uniqueIds.size() * 2);
+        if (uniqueIds.isEmpty()) {
+            return users;
+        }
+
+        String url = userServiceUrl + "/api/users/batch";
+        List<Long> ids = new ArrayList<>(uniqueIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            try {
+                ResponseEntity<List<Map<String, Object>>> response = call(userBatchTimers, () -> restTemplate.postForEntity(url, chunk, (Class<List<Map<String, Object>>>) (Class<?>) List.class));
+                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                    for (Map<String, Object> body : response.getBody()) {
+                        UserInfo userInfo = toUserInfo(body);
+                        users.put(userInfo.getId(), userInfo);
+                    }
+                }
+            } catch (Exception e) {
+                // A failed chunk leaves those users unresolved rather than failing the whole page
+                logger.warn("Error calling user service: {}", e.getMessage());
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Active session revocations as published by user-service; empty if it cannot be reached.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getRevocations() {
+        try {
+            String url = userServiceUrl + "/api/session/revocations";
+            ResponseEntity<List<Map<String, Object>>> response = call(revocationTimers, () -> restTemplate.getForEntity(url, (Class<List<Map<String, Object>>>) (Class<?>) List.class));
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                return response.getBody();
+            }
+        } catch (Exception e) {
+            logger.warn("Error loading session revocations: {}", e.getMessage());
+        }
+        return List.of();
+    }
+
+    private <T> T call(RequestTimers timers, Supplier<T> request) {
+        long start = System.nanoTime();
+        Timer outcome = timers.error;
+        try {
+            T response = Bulkhead.decorateSupplier(bulkhead,
+                    CircuitBreaker.decorateSupplier(circuitBreaker, request)).get();
+            outcome = timers.success;
+            return response;
+        } catch (HttpClientErrorException e) {
+            outcome = timers.clientError;
+            throw e;
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            outcome = timers.rejected;
+            throw e;
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private UserInfo toUserInfo(Map<String, Object> body) {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setId(((Number) body.get("id")).longValue());
+        userInfo.setUsername((String) body.get("username"));
+        userInfo.setName((String) body.get("name"));
+        userInfo.setFlatNo((String) body.get("flatNo"));
+        userInfo.setContactNumber((String) body.get("contactNumber"));
+        userInfo.setRole((String) body.getOrDefault("role", "USER"));
+        return userInfo;
+    }
+
+    // The user.service.requests timers of one operation, registered once per outcome
+    private static final class RequestTimers {
+        private final Timer success;
+        private final Timer clientError;
+        private final Timer rejected;
+        private final Timer error;
+
+        private RequestTimers(String operation, MeterRegistry meterRegistry) {
+            this.success = register(operation, "success", meterRegistry);
+            this.clientError = register(operation, "client_error", meterRegistry);
+            this.rejected = register(operation, "rejected", meterRegistry);
+            this.error = register(operation, "error", meterRegistry);
+        }
+
+        private static Timer register(String operation, String outcome, MeterRegistry meterRegistry) {
+            return Timer.builder("user.service.requests")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+
     public static class SessionInfo {
         private Long userId;
         private String username;
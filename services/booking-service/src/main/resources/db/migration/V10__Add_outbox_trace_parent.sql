@@ -0,0 +1,3 @@
+-- W3C traceparent of the request that wrote the event, so the relay can publish it in
+-- the same trace even though it runs later on a scheduler thread
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS trace_parent VARCHAR(55);
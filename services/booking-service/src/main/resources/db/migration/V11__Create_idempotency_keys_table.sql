@@ -0,0 +1,16 @@
+-- Responses to booking requests sent with an Idempotency-Key, so a retried request gets the
+-- original response instead of creating a second booking. Keys are scoped to the user. A row
+-- is claimed in the booking transaction and only ever committed with its response.
+-- request_hash is the SHA-256 of the booking a key was first used for, so that reusing the
+-- key for a different booking is rejected instead of replaying an unrelated response.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(128) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+-- Expired keys are purged by age
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,9 @@
+-- Occurrences of a recurring booking share a series id so the series can be cancelled together
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS series_id UUID;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_series_id ON bookings (series_id) WHERE series_id IS NOT NULL;
+
+-- Hibernate's pooled optimizer takes 50 ids per sequence call, which lets it batch inserts;
+-- identity columns would force one round trip per row. Ids stay unique, with gaps.
+ALTER SEQUENCE bookings_id_seq INCREMENT BY 50;
+ALTER SEQUENCE outbox_events_id_seq INCREMENT BY 50;
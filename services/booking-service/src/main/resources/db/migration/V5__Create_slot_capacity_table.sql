@@ -0,0 +1,25 @@
+-- Per-slot booking counters used to enforce capacity atomically.
+-- Slot-based amenities have one row per time slot; day-based amenities (HALL, BBQ)
+-- use an empty time_slot so the whole day shares a single counter.
+CREATE TABLE IF NOT EXISTS slot_capacity (
+    amenity_id BIGINT NOT NULL,
+    booking_date DATE NOT NULL,
+    time_slot VARCHAR(20) NOT NULL,
+    amenity_type VARCHAR(20) NOT NULL,
+    booked_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (amenity_id, booking_date, time_slot),
+    CONSTRAINT slot_capacity_booked_count_non_negative CHECK (booked_count >= 0)
+);
+
+-- Backfill counters from existing bookings
+INSERT INTO slot_capacity (amenity_id, booking_date, time_slot, amenity_type, booked_count)
+SELECT amenity_id,
+       booking_date,
+       CASE WHEN amenity_type IN ('HALL', 'BBQ') THEN '' ELSE COALESCE(time_slot, '') END,
+       MIN(amenity_type),
+       COUNT(*)
+FROM bookings
+GROUP BY amenity_id,
+         booking_date,
+         CASE WHEN amenity_type IN ('HALL', 'BBQ') THEN '' ELSE COALESCE(time_slot, '') END
+ON CONFLICT (amenity_id, booking_date, time_slot) DO NOTHING;
@@ -0,0 +1,9 @@
+-- Composite indexes backing keyset pagination on (slot_start, id) for the admin booking search.
+-- Each optional equality filter gets its own leading column so a filtered page is still an index range scan.
+CREATE INDEX IF NOT EXISTS idx_bookings_slot_start_id ON bookings(slot_start, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_amenity_slot_start_id ON bookings(amenity_id, slot_start, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_user_slot_start_id ON bookings(user_id, slot_start, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_type_slot_start_id ON bookings(amenity_type, slot_start, id);
+
+-- Superseded by idx_bookings_slot_start_id
+DROP INDEX IF EXISTS idx_bookings_slot_start;
@@ -0,0 +1,43 @@
+-- Booking counts rolled up per amenity and day, maintained in the booking transaction.
+-- Admin statistics and time-bucketed breakdowns read these rows instead of scanning bookings.
+-- Rows are kept per time slot, keyed like slot_capacity (empty time_slot for day-based
+-- amenities), so a booking only locks rows of the slot it already holds.
+CREATE TABLE IF NOT EXISTS booking_daily_stats (
+    amenity_id BIGINT NOT NULL,
+    booking_date DATE NOT NULL,
+    time_slot VARCHAR(20) NOT NULL,
+    amenity_type VARCHAR(20) NOT NULL,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (amenity_id, booking_date, time_slot),
+    CONSTRAINT booking_daily_stats_count_non_negative CHECK (booking_count >= 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_daily_stats_date ON booking_daily_stats (booking_date);
+
+-- Booking counts per user
+CREATE TABLE IF NOT EXISTS booking_user_stats (
+    user_id BIGINT PRIMARY KEY,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT booking_user_stats_count_non_negative CHECK (booking_count >= 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_user_stats_count ON booking_user_stats (booking_count DESC);
+
+-- Backfill from existing bookings
+INSERT INTO booking_daily_stats (amenity_id, booking_date, time_slot, amenity_type, booking_count)
+SELECT amenity_id,
+       booking_date,
+       CASE WHEN amenity_type IN ('HALL', 'BBQ') THEN '' ELSE COALESCE(time_slot, '') END,
+       MIN(amenity_type),
+       COUNT(*)
+FROM bookings
+GROUP BY amenity_id,
+         booking_date,
+         CASE WHEN amenity_type IN ('HALL', 'BBQ') THEN '' ELSE COALESCE(time_slot, '') END
+ON CONFLICT (amenity_id, booking_date, time_slot) DO NOTHING;
+
+INSERT INTO booking_user_stats (user_id, booking_count)
+SELECT user_id, COUNT(*)
+FROM bookings
+GROUP BY user_id
+ON CONFLICT (user_id) DO NOTHING;
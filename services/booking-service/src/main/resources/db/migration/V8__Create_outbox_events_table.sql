@@ -0,0 +1,20 @@
+-- Transactional outbox: booking events are written here in the booking transaction and
+-- published to RabbitMQ afterwards by the relay, so no event is lost if the broker is down.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    exchange VARCHAR(100) NOT NULL,
+    routing_key VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    dispatched_at TIMESTAMP,
+    last_error VARCHAR(500)
+);
+
+-- The relay only ever looks at pending rows
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (next_attempt_at, id)
+    WHERE dispatched_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_dispatched_at ON outbox_events (dispatched_at)
+    WHERE dispatched_at IS NOT NULL;
@@ -0,0 +1,15 @@
+-- Compact slot key: the slot's start as a 15-minute index into the day (0-95).
+-- time_slot is kept for compatibility; day-based bookings have neither.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS slot_ordinal SMALLINT;
+
+UPDATE bookings
+SET slot_ordinal = (CAST(SUBSTRING(time_slot FROM 1 FOR 2) AS INTEGER) * 60
+                    + CAST(SUBSTRING(time_slot FROM 4 FOR 2) AS INTEGER)) / 15
+WHERE slot_ordinal IS NULL
+  AND time_slot ~ '^([01][0-9]|2[0-3]):[0-5][0-9]-';
+
+ALTER TABLE bookings ADD CONSTRAINT chk_bookings_slot_ordinal CHECK (slot_ordinal BETWEEN 0 AND 95);
+
+-- Occupancy counts now group by slot_ordinal instead of time_slot
+CREATE INDEX IF NOT EXISTS idx_bookings_amenity_date_ordinal ON bookings(amenity_id, booking_date, slot_ordinal);
+DROP INDEX IF EXISTS idx_bookings_amenity_date_slot;
@@ -0,0 +1,107 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.model.Booking;
+import com.apartmentcommunity.booking.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingExportServiceTest {
+    private static final int BATCH_SIZE = 500;
+    private static final long ROWS = 1_000_000;
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private long maxPending;
+
+    private BookingRepository bookingRepository;
+    private EntityManager entityManager;
+    private BookingExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        UserServiceClient userServiceClient = mock(UserServiceClient.class);
+        entityManager = mock(EntityManager.class);
+
+        // Each lookup covers one batch, so it tells how far the writer is behind the cursor
+        when(userServiceClient.getUserInfos(anyCollection())).thenAnswer(invocation -> {
+            maxPending = Math.max(maxPending, generated.get() - written.get());
+            return Map.of();
+        });
+
+        exportService = new BookingExportService(bookingRepository, userServiceClient,
+                mock(PlatformTransactionManager.class), new ObjectMapper().findAndRegisterModules(), BATCH_SIZE);
+        ReflectionTestUtils.setField(exportService, "entityManager", entityManager);
+    }
+
+    @Test
+    void streamsEveryRowWithoutBufferingTheTable() throws Exception {
+        when(bookingRepository.streamAllOrderBySlotStart()).thenReturn(generateBookings());
+        CountingOutputStream output = new CountingOutputStream();
+
+        long rows = exportService.export(BookingExportService.Format.NDJSON, output);
+
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS, output.lines);
+        assertTrue(maxPending <= BATCH_SIZE, "held " + maxPending + " bookings before writing them");
+        verify(entityManager, times((int) (ROWS / BATCH_SIZE))).clear();
+    }
+
+    @Test
+    void writesCsvHeaderAndOneLinePerRow() throws Exception {
+        when(bookingRepository.streamAllOrderBySlotStart()).thenReturn(generateBookings());
+        CountingOutputStream output = new CountingOutputStream();
+
+        long rows = exportService.export(BookingExportService.Format.CSV, output);
+
+        assertEquals(ROWS, rows);
+        assertEquals(ROWS + 1, output.lines);
+        assertTrue(maxPending <= BATCH_SIZE, "held " + maxPending + " bookings before writing them");
+    }
+
+    private Stream<Booking> generateBookings() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 6, 0);
+        return Stream.iterate(0L, i -> i + 1)
+                .limit(ROWS)
+                .map(i -> {
+                    generated.incrementAndGet();
+                    LocalDateTime slotStart = start.plusHours(i);
+                    Booking booking = new Booking(i % 20 + 1, i % 1000 + 1, slotStart, slotStart.plusHours(1));
+                    booking.setId(i + 1);
+                    booking.setCreatedAt(slotStart.minusDays(1));
+                    return booking;
+                });
+    }
+
+    // Discards the export, counting only the lines and the bookings they stand for
+    private final class CountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+                written.incrementAndGet();
+            }
+        }
+    }
+}
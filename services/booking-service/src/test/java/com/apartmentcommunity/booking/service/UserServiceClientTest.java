@@ -0,0 +1,161 @@
+package com.apartmentcommunity.booking.service;
+
+import com.apartmentcommunity.booking.config.UserServiceClientConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the client as UserServiceClientConfig wires it against a local user-service stub
+ * that answers after a configurable delay.
+ */
+class UserServiceClientTest {
+    private static final long RESPONSE_TIMEOUT_MS = 300;
+    private static final int MAX_CONCURRENT_CALLS = 2;
+    private static final int MINIMUM_CALLS = 4;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch twoInFlight = new CountDownLatch(MAX_CONCURRENT_CALLS);
+    private volatile long latencyMs;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private MeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private UserServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/api/users/", exchange -> {
+            requests.incrementAndGet();
+            twoInFlight.countDown();
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"id\":1,\"username\":\"resident\",\"role\":\"USER\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            } catch (IOException e) {
+                // The client gave up first
+            }
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        UserServiceClientConfig config = new UserServiceClientConfig();
+        connectionManager = config.userServiceConnectionManager(10, 10, 200, RESPONSE_TIMEOUT_MS, 60, meterRegistry);
+        httpClient = config.userServiceHttpClient(connectionManager, 250, RESPONSE_TIMEOUT_MS, 30);
+        RestTemplate restTemplate = config.userServiceRestTemplate(new RestTemplateBuilder(), httpClient);
+        circuitBreaker = config.userServiceCircuitBreaker(50, 200, 80, MINIMUM_CALLS, MINIMUM_CALLS, 60_000, meterRegistry);
+        Bulkhead bulkhead = config.userServiceBulkhead(MAX_CONCURRENT_CALLS, 50, meterRegistry);
+
+        String url = "http://localhost:" + server.getAddress().getPort();
+        client = new UserServiceClient(url, 500, null, null, restTemplate, circuitBreaker, bulkhead, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.stop(0);
+        serverThreads.shutdownNow();
+        httpClient.close();
+        connectionManager.close();
+    }
+
+    @Test
+    void returnsWithinTheResponseTimeoutWhenUserServiceHangs() {
+        latencyMs = 5_000;
+
+        Optional<UserServiceClient.UserInfo> user = assertTimeoutPreemptively(
+                Duration.ofMillis(RESPONSE_TIMEOUT_MS * 3), () -> client.getUserInfo(1L));
+
+        assertFalse(user.isPresent());
+        assertEquals(1, count("error"));
+    }
+
+    @Test
+    void opensTheBreakerAndStopsCallingASlowUserService() {
+        latencyMs = 5_000;
+        for (int i = 0; i < MINIMUM_CALLS; i++) {
+            client.getUserInfo(1L);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Optional<UserServiceClient.UserInfo> user = assertTimeoutPreemptively(
+                Duration.ofMillis(100), () -> client.getUserInfo(1L));
+
+        assertFalse(user.isPresent());
+        assertEquals(MINIMUM_CALLS, requests.get());
+        assertEquals(1, count("rejected"));
+    }
+
+    @Test
+    void rejectsCallsBeyondTheBulkheadWithoutWaitingForUserService() throws Exception {
+        latencyMs = 200;
+        ExecutorService callers = Executors.newFixedThreadPool(MAX_CONCURRENT_CALLS);
+        try {
+            List<Future<Optional<UserServiceClient.UserInfo>>> slowCalls = new ArrayList<>();
+            for (int i = 0; i < MAX_CONCURRENT_CALLS; i++) {
+                slowCalls.add(callers.submit(() -> client.getUserInfo(1L)));
+            }
+            assertTrue(twoInFlight.await(RESPONSE_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+
+            Optional<UserServiceClient.UserInfo> user = assertTimeoutPreemptively(
+                    Duration.ofMillis(150), () -> client.getUserInfo(1L));
+
+            assertFalse(user.isPresent());
+            for (Future<Optional<UserServiceClient.UserInfo>> call : slowCalls) {
+                assertTrue(call.get().isPresent());
+            }
+            assertEquals(MAX_CONCURRENT_CALLS, requests.get());
+            assertEquals(1, count("rejected"));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private long count(String outcome) {
+        return meterRegistry.get("user.service.requests")
+                .tag("operation", "user")
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
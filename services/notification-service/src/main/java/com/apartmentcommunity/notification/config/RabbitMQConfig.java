@@ -3,24 +3,74 @@ package com.apartmentcommunity.notification.config;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
 
 @Configuration
 public class RabbitMQConfig {
     public static final String EXCHANGE_NAME = "booking_events";
+    public static final String DEAD_LETTER_EXCHANGE_NAME = "booking_events.dlx";
 
     @Bean
     public TopicExchange bookingExchange() {
         return new TopicExchange(EXCHANGE_NAME, true, false);
     }
 
+    /**
+     * Batch listener containers: each consumer collects up to {@code batch-size} messages,
+     * waiting at most {@code receive-timeout-ms} for a batch to fill, and hands them to the
+     * listener in one call. Consumers scale between {@code concurrency} and
+     * {@code max-concurrency} with the backlog. A batch size of 1 is per-message delivery.
+     */
     @Bean
-    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(ConnectionFactory connectionFactory) {
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${notification.listener.concurrency:2}") int concurrency,
+            @Value("${notification.listener.max-concurrency:8}") int maxConcurrency,
+            @Value("${notification.listener.prefetch:100}") int prefetch,
+            @Value("${notification.listener.batch-size:20}") int batchSize,
+            @Value("${notification.listener.receive-timeout-ms:100}") long receiveTimeoutMs) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(new Jackson2JsonMessageConverter());
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        // A batch can only fill up to the number of unacked messages the broker lets us hold
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
         return factory;
     }
+
+    /**
+     * Retries a failing notification in place with exponential backoff. Malformed events are
+     * not retried; they go straight to the dead-letter queue.
+     */
+    @Bean
+    public RetryTemplate notificationRetryTemplate(
+            @Value("${notification.retry.max-attempts:3}") int maxAttempts,
+            @Value("${notification.retry.initial-interval-ms:200}") long initialIntervalMs,
+            @Value("${notification.retry.multiplier:2.0}") double multiplier,
+            @Value("${notification.retry.max-interval-ms:5000}") long maxIntervalMs) {
+        return RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(initialIntervalMs, multiplier, maxIntervalMs)
+                .notRetryOn(IllegalArgumentException.class)
+                .build();
+    }
+
+    /**
+     * Republishes a message that exhausted its retries to the dead-letter exchange with
+     * routing key "error.&lt;original key&gt;" and the exception in x-exception-* headers.
+     */
+    @Bean
+    public MessageRecoverer deadLetterRecoverer(RabbitTemplate rabbitTemplate) {
+        return new RepublishMessageRecoverer(rabbitTemplate, DEAD_LETTER_EXCHANGE_NAME);
+    }
 }
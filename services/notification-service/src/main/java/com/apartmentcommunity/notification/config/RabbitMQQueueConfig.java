@@ -10,6 +10,7 @@ import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class RabbitMQQueueConfig {
+    public static final String DEAD_LETTER_QUEUE_NAME = "booking.notifications.dlq";
     
     @Bean
     public Queue bookingCreatedQueue() {
@@ -22,16 +23,38 @@ public class RabbitMQQueueConfig {
     }
 
     @Bean
-    public Binding bookingCreatedBinding(@Qualifier("bookingCreatedQueue") Queue bookingCreatedQueue, TopicExchange bookingExchange) {
+    public Binding bookingCreatedBinding(@Qualifier("bookingCreatedQueue") Queue bookingCreatedQueue,
+                                         @Qualifier("bookingExchange") TopicExchange bookingExchange) {
         return BindingBuilder.bind(bookingCreatedQueue)
             .to(bookingExchange)
             .with("booking.created");
     }
 
     @Bean
-    public Binding bookingCancelledBinding(@Qualifier("bookingCancelledQueue") Queue bookingCancelledQueue, TopicExchange bookingExchange) {
+    public Binding bookingCancelledBinding(@Qualifier("bookingCancelledQueue") Queue bookingCancelledQueue,
+                                           @Qualifier("bookingExchange") TopicExchange bookingExchange) {
         return BindingBuilder.bind(bookingCancelledQueue)
             .to(bookingExchange)
             .with("booking.cancelled");
     }
+
+    // Events that failed every retry are parked here for inspection and manual replay.
+    // The dead-letter exchange is separate so the existing queues keep their arguments.
+    @Bean
+    public TopicExchange deadLetterExchange() {
+        return new TopicExchange(RabbitMQConfig.DEAD_LETTER_EXCHANGE_NAME, true, false);
+    }
+
+    @Bean
+    public Queue deadLetterQueue() {
+        return new Queue(DEAD_LETTER_QUEUE_NAME, true);
+    }
+
+    @Bean
+    public Binding deadLetterBinding(@Qualifier("deadLetterQueue") Queue deadLetterQueue,
+                                     @Qualifier("deadLetterExchange") TopicExchange deadLetterExchange) {
+        return BindingBuilder.bind(deadLetterQueue)
+            .to(deadLetterExchange)
+            .with("error.#");
+    }
 }
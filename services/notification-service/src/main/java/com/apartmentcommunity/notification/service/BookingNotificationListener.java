@@ -1,33 +1,176 @@
 package com.apartmentcommunity.notification.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Consumes booking events in batches (see RabbitMQConfig).
+ *
+ * Each event in a batch is handled on its own: a failing event is retried with backoff and,
+ * once its retries are exhausted, republished to the dead-letter queue, so one poison
+ * message never holds up the rest of the batch or the queue. Each event also gets its own
+ * "notification.process" observation continuing the trace carried in its headers.
+ *
+ * Delivery is at-least-once, so events already handled within the dedup window (see
+ * {@link EventDedupStore}) are acknowledged and skipped. An event is recorded there only
+ * once it was processed or dead-lettered, so a crash or failed republish midway leaves it
+ * to be handled again on redelivery; a copy arriving while the first is still being
+ * handled is skipped as well.
+ */
 @Service
 public class BookingNotificationListener {
     private static final Logger logger = LoggerFactory.getLogger(BookingNotificationListener.class);
 
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+    private final RetryTemplate retryTemplate;
+    private final MessageRecoverer deadLetterRecoverer;
+    private final EventDedupStore dedupStore;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ObservationRegistry observationRegistry;
+    private final Counter processedCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter duplicateCounter;
+
+    @Autowired
+    public BookingNotificationListener(@Qualifier("notificationRetryTemplate") RetryTemplate retryTemplate,
+                                       @Qualifier("deadLetterRecoverer") MessageRecoverer deadLetterRecoverer,
+                                       EventDedupStore dedupStore,
+                                       ObservationRegistry observationRegistry,
+                                       MeterRegistry meterRegistry) {
+        this.retryTemplate = retryTemplate;
+        this.deadLetterRecoverer = deadLetterRecoverer;
+        this.dedupStore = dedupStore;
+        this.observationRegistry = observationRegistry;
+        this.processedCounter = Counter.builder("notification.events")
+                .tag("outcome", "processed")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("notification.events")
+                .tag("outcome", "dead_lettered")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("notification.events")
+                .tag("outcome", "duplicate")
+                .register(meterRegistry);
+    }
+
     @RabbitListener(queues = "booking.created.queue")
-    public void handleBookingCreated(Map<String, Object> event) {
-        logger.info("📧 EMAIL NOTIFICATION: Booking Created");
-        logger.info("   Booking ID: {}", event.get("bookingId"));
-        logger.info("   Amenity ID: {}", event.get("amenityId"));
-        logger.info("   User ID: {}", event.get("userId"));
-        logger.info("   Slot: {} to {}", event.get("slotStart"), event.get("slotEnd"));
-        logger.info("   --- Simulated email sent to user ---");
+    public void handleBookingCreated(List<Message> messages) {
+        for (Message message : messages) {
+            process(message, "Booking Created");
+        }
     }
 
     @RabbitListener(queues = "booking.cancelled.queue")
-    public void handleBookingCancelled(Map<String, Object> event) {
-        logger.info("📧 EMAIL NOTIFICATION: Booking Cancelled");
-        logger.info("   Booking ID: {}", event.get("bookingId"));
-        logger.info("   Amenity ID: {}", event.get("amenityId"));
-        logger.info("   User ID: {}", event.get("userId"));
-        logger.info("   Slot: {} to {}", event.get("slotStart"), event.get("slotEnd"));
-        logger.info("   --- Simulated email sent to user ---");
+    public void handleBookingCancelled(List<Message> messages) {
+        for (Message message : messages) {
+            process(message, "Booking Cancelled");
+        }
+    }
+
+    private void process(Message message, String notification) {
+        ReceiverContext<Message> context = new ReceiverContext<>(
+                (carrier, key) -> carrier.getMessageProperties().getHeader(key));
+        context.setCarrier(message);
+        Observation.createNotStarted("notification.process", () -> context, observationRegistry)
+                .contextualName(message.getMessageProperties().getReceivedRoutingKey() + " process")
+                .lowCardinalityKeyValue("queue", String.valueOf(message.getMessageProperties().getConsumerQueue()))
+                .observe(() -> handle(message, notification));
+    }
+
+    private void handle(Message message, String notification) {
+        // Redeliveries are dropped on the message id alone, before the payload is parsed
+        String eventId = message.getMessageProperties().getMessageId();
+        if (eventId != null && !claim(eventId)) {
+            duplicateCounter.increment();
+            return;
+        }
+
+        boolean handled = false;
+        try {
+            Map<String, Object> event = toEvent(message);
+            if (eventId == null && event.get("eventId") != null) {
+                if (!claim(event.get("eventId").toString())) {
+                    duplicateCounter.increment();
+                    return;
+                }
+                eventId = event.get("eventId").toString();
+            }
+            retryTemplate.execute(retry -> {
+                sendEmail(notification, event);
+                return null;
+            });
+            processedCounter.increment();
+            handled = true;
+        } catch (RuntimeException e) {
+            logger.error("Dead-lettering booking event {} from {}: {}",
+                    eventId, message.getMessageProperties().getConsumerQueue(), e.getMessage());
+            // If republishing fails the batch is redelivered, and the event stays unrecorded so it is handled then
+            deadLetterRecoverer.recover(message, e);
+            deadLetteredCounter.increment();
+            handled = true;
+        } finally {
+            release(eventId, handled);
+        }
+    }
+
+    // Marks the event as being handled, or returns false if it already is or was handled
+    private boolean claim(String eventId) {
+        if (!inFlight.add(eventId)) {
+            return false;
+        }
+        if (dedupStore.contains(eventId)) {
+            inFlight.remove(eventId);
+            return false;
+        }
+        return true;
+    }
+
+    // Recorded before the claim is dropped, so a concurrent copy sees one or the other
+    private void release(String eventId, boolean handled) {
+        if (eventId == null) {
+            return;
+        }
+        if (handled) {
+            dedupStore.add(eventId);
+        }
+        inFlight.remove(eventId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toEvent(Message message) {
+        Object payload;
+        try {
+            payload = messageConverter.fromMessage(message);
+        } catch (MessageConversionException e) {
+            throw new IllegalArgumentException("Malformed booking event: " + e.getMessage(), e);
+        }
+        if (!(payload instanceof Map) || ((Map<String, Object>) payload).get("bookingId") == null) {
+            throw new IllegalArgumentException("Booking event without a bookingId");
+        }
+        return (Map<String, Object>) payload;
+    }
+
+    private void sendEmail(String notification, Map<String, Object> event) {
+        logger.info("📧 EMAIL NOTIFICATION: {} bookingId={} amenityId={} userId={} slot={} to {}",
+                notification, event.get("bookingId"), event.get("amenityId"), event.get("userId"),
+                event.get("slotStart"), event.get("slotEnd"));
     }
 }
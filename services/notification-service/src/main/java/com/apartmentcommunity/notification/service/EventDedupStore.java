@@ -0,0 +1,186 @@
+package com.apartmentcommunity.notification.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ids of recently handled events, used to drop redeliveries.
+ *
+ * All storage is allocated up front: a ring of the last {@code max-entries} ids (as the
+ * two halves of the UUID) with the time each was seen, and an open-addressing index into
+ * the ring. Ids leave the store when they are older than {@code window-minutes} or when
+ * the ring is full and the oldest one is overwritten, so the footprint is fixed no matter
+ * how many events flow through.
+ */
+@Service
+public class EventDedupStore {
+    private static final int EMPTY = -1;
+
+    private final int capacity;
+    private final long windowNanos;
+
+    // Ring of ids in arrival order; tail is the oldest live entry
+    private final long[] ringHigh;
+    private final long[] ringLow;
+    private final long[] ringSeenAt;
+    private int head;
+    private int tail;
+    private int size;
+
+    // Linear-probing index from id to ring position, kept at most half full
+    private final int[] index;
+    private final int indexMask;
+
+    @Autowired
+    public EventDedupStore(@Value("${notification.dedup.max-entries:100000}") int capacity,
+                           @Value("${notification.dedup.window-minutes:60}") long windowMinutes,
+                           MeterRegistry meterRegistry) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("notification.dedup.max-entries must be positive");
+        }
+        this.capacity = capacity;
+        this.windowNanos = TimeUnit.MINUTES.toNanos(windowMinutes);
+        this.ringHigh = new long[capacity];
+        this.ringLow = new long[capacity];
+        this.ringSeenAt = new long[capacity];
+        this.index = new int[Integer.highestOneBit(capacity) << 2];
+        this.indexMask = index.length - 1;
+        Arrays.fill(index, EMPTY);
+
+        Gauge.builder("notification.dedup.size", this, EventDedupStore::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the id and returns true, or returns false if it was already recorded within
+     * the window. Ids that are not UUIDs are never treated as duplicates.
+     */
+    public boolean add(String eventId) {
+        UUID id = parse(eventId);
+        if (id == null) {
+            return true;
+        }
+        long high = id.getMostSignificantBits();
+        long low = id.getLeastSignificantBits();
+        long now = System.nanoTime();
+
+        synchronized (this) {
+            expire(now);
+            if (find(high, low) != EMPTY) {
+                return false;
+            }
+            if (size == capacity) {
+                evictOldest();
+            }
+            int position = head;
+            ringHigh[position] = high;
+            ringLow[position] = low;
+            ringSeenAt[position] = now;
+            head = next(head);
+            size++;
+            insert(high, low, position);
+            return true;
+        }
+    }
+
+    /**
+     * Whether the id was recorded within the window. Ids that are not UUIDs never are.
+     */
+    public boolean contains(String eventId) {
+        UUID id = parse(eventId);
+        if (id == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        synchronized (this) {
+            expire(now);
+            return find(id.getMostSignificantBits(), id.getLeastSignificantBits()) != EMPTY;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void expire(long now) {
+        while (size > 0 && now - ringSeenAt[tail] > windowNanos) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        int slot = find(ringHigh[tail], ringLow[tail]);
+        if (slot != EMPTY) {
+            delete(slot);
+        }
+        tail = next(tail);
+        size--;
+    }
+
+    // Index slot holding the id, or EMPTY
+    private int find(long high, long low) {
+        for (int slot = hash(high, low) & indexMask; ; slot = (slot + 1) & indexMask) {
+            int position = index[slot];
+            if (position == EMPTY) {
+                return EMPTY;
+            }
+            if (ringHigh[position] == high && ringLow[position] == low) {
+                return slot;
+            }
+        }
+    }
+
+    private void insert(long high, long low, int position) {
+        int slot = hash(high, low) & indexMask;
+        while (index[slot] != EMPTY) {
+            slot = (slot + 1) & indexMask;
+        }
+        index[slot] = position;
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones
+    private void delete(int slot) {
+        int gap = slot;
+        for (int next = (gap + 1) & indexMask; index[next] != EMPTY; next = (next + 1) & indexMask) {
+            int position = index[next];
+            int home = hash(ringHigh[position], ringLow[position]) & indexMask;
+            // Move the entry into the gap unless its home lies cyclically in (gap, next]
+            boolean homeBetween = gap <= next ? (gap < home && home <= next) : (gap < home || home <= next);
+            if (!homeBetween) {
+                index[gap] = position;
+                gap = next;
+            }
+        }
+        index[gap] = EMPTY;
+    }
+
+    private int next(int position) {
+        return position + 1 == capacity ? 0 : position + 1;
+    }
+
+    private static int hash(long high, long low) {
+        long h = high ^ low;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static UUID parse(String eventId) {
+        if (eventId == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(eventId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -26,6 +26,11 @@ let currentUserRole = localStorage.getItem('userRole');
 let amenities = [];
 let bookings = [];
 let adminBookings = [];
+let adminNextCursor = null;
+let availabilityStream = null;
+// Sessions expire after two hours without use; activity refreshes the token at most this often
+const SESSION_REFRESH_INTERVAL_MS = 5 * 60 * 1000;
+let sessionRefreshedAt = 0;
 
 // Initialize
 document.addEventListener('DOMContentLoaded', () => {
@@ -63,16 +68,43 @@ function setupEventListeners() {
     document.getElementById('load-all-bookings-btn').addEventListener('click', loadAllBookings);
     document.getElementById('load-stats-btn').addEventListener('click', loadAdminStats);
     document.getElementById('admin-amenity-filter').addEventListener('change', filterAdminBookings);
+
+    // Any interaction counts as use of the session
+    document.addEventListener('click', refreshSessionIfDue);
+    document.addEventListener('keydown', refreshSessionIfDue);
 }
 
 function checkAuthStatus() {
     if (sessionToken && currentUsername) {
         showBookingSection();
+        refreshSessionIfDue();
     } else {
         showAuthSection();
     }
 }
 
+async function refreshSessionIfDue() {
+    if (!sessionToken || Date.now() - sessionRefreshedAt < SESSION_REFRESH_INTERVAL_MS) {
+        return;
+    }
+    sessionRefreshedAt = Date.now();
+    try {
+        const response = await fetch(`${USER_API}/session/${sessionToken}/refresh`, { method: 'POST' });
+        if (response.ok) {
+            const data = await response.json();
+            sessionToken = data.token;
+            localStorage.setItem('sessionToken', sessionToken);
+        } else if (response.status === 401) {
+            // Idle too long or revoked; the old token is no longer accepted anywhere
+            handleLogout();
+        }
+    } catch (error) {
+        // Try again on the next interaction
+        sessionRefreshedAt = 0;
+        console.error('Session refresh error:', error);
+    }
+}
+
 function switchTab(tab) {
     document.querySelectorAll('.tab-btn').forEach(btn => {
         btn.classList.remove('active');
@@ -130,6 +162,7 @@ async function handleLogin(e) {
             localStorage.setItem('sessionToken', sessionToken);
             localStorage.setItem('username', currentUsername);
             localStorage.setItem('userRole', currentUserRole);
+            sessionRefreshedAt = Date.now();
             showBookingSection();
             loadUserBookings();
         } else {
@@ -176,6 +209,7 @@ async function handleRegister(e) {
             localStorage.setItem('sessionToken', sessionToken);
             localStorage.setItem('username', currentUsername);
             localStorage.setItem('userRole', currentUserRole);
+            sessionRefreshedAt = Date.now();
             showBookingSection();
             loadUserBookings();
         } else {
@@ -190,6 +224,12 @@ async function handleRegister(e) {
 }
 
 function handleLogout() {
+    if (sessionToken) {
+        // Fire-and-forget: the server drops the session and notifies other services
+        fetch(`${USER_API}/session/${sessionToken}`, { method: 'DELETE' })
+            .catch(error => console.error('Logout error:', error));
+    }
+
     sessionToken = null;
     currentUsername = null;
     currentUserRole = null;
@@ -243,11 +283,15 @@ async function loadTimeSlots() {
     }
 
     try {
-        const response = await fetch(`${BOOKING_API}/availability?amenityId=${amenityId}&date=${date}`);
+        // Revalidate with If-None-Match; an unchanged day comes back as 304 from the browser cache
+        const response = await fetch(`${BOOKING_API}/availability?amenityId=${amenityId}&date=${date}`, {
+            cache: 'no-cache'
+        });
         if (response.ok) {
             const data = await response.json();
             console.log('Availability data:', data);
             displayTimeSlots(data, amenityId, date);
+            watchAvailability(data, amenityId, date);
         } else {
             const errorText = await response.text();
             console.error('API Error:', response.status, errorText);
@@ -259,68 +303,75 @@ async function loadTimeSlots() {
     }
 }
 
+// Keeps the displayed slots current from booking-service's event stream instead of re-fetching
+function watchAvailability(data, amenityId, date) {
+    if (availabilityStream) {
+        availabilityStream.close();
+        availabilityStream = null;
+    }
+    if (!window.EventSource) {
+        return;
+    }
+
+    availabilityStream = new EventSource(`${BOOKING_API}/availability/stream?amenityId=${amenityId}&date=${date}`);
+    // Sent on every (re)connect, so a dropped stream resyncs by itself
+    availabilityStream.addEventListener('snapshot', (e) => {
+        const snapshot = JSON.parse(e.data);
+        data.bookedSlots = snapshot.bookedSlots;
+        data.bookingCount = snapshot.dayTotal;
+        refreshTimeSlots(data, amenityId, date);
+    });
+    availabilityStream.addEventListener('slot', (e) => {
+        const change = JSON.parse(e.data);
+        if (change.slot) {
+            data.bookedSlots = data.bookedSlots || {};
+            data.bookedSlots[change.slot] = change.booked;
+        }
+        data.bookingCount = change.dayTotal;
+        refreshTimeSlots(data, amenityId, date);
+    });
+}
+
+function refreshTimeSlots(data, amenityId, date) {
+    if (!data.isDayBased) {
+        data.availableSlots = (data.slots || []).filter(slot => (data.bookedSlots[slot] || 0) < data.capacity);
+    }
+    displayTimeSlots(data, amenityId, date);
+}
+
+// Only re-fetch when no stream is pushing the change already
+function reloadTimeSlotsIfNotStreaming() {
+    if (!availabilityStream || availabilityStream.readyState === EventSource.CLOSED) {
+        loadTimeSlots();
+    }
+}
+
 function displayTimeSlots(data, amenityId, date) {
     const container = document.getElementById('slots-container');
-    const amenityType = getAmenityType(amenityId);
-
-    // Always use local check first - if local says it's day-based, use that
-    // API flag is only used if local check is inconclusive (not HALL or BBQ)
-    const localIsDayBased = amenityType === 'HALL' || amenityType === 'BBQ';
-    // If local check says day-based, use that. Otherwise, trust API if available
-    const isDayBased = localIsDayBased ? true : (data.isDayBased === true);
-
-    // Debug logging
-    console.log('Display Time Slots:', {
-        amenityId,
-        amenityName: getAmenityName(amenityId),
-        amenityType,
-        localIsDayBased,
-        apiIsDayBased: data.isDayBased,
-        finalIsDayBased: isDayBased,
-        willShowDayBased: isDayBased
-    });
+    const amenityName = getAmenityName(amenityId);
+
+    // Booking rules (day-based flag, capacity, slots) come from the availability response
+    const isDayBased = data.isDayBased === true;
+    const maxCapacity = data.capacity;
 
     if (isDayBased) {
-        // For day-based amenities (HALL, BBQ), show ONLY a single "Book for this day" button
+        // For day-based amenities, show ONLY a single "Book for this day" button
         // Do NOT show any time slots
-        container.innerHTML = `<h2>${getAmenityName(amenityId)} - ${date}</h2>`;
-
-        // Check if the day is already booked
-        const isBooked = data.isBooked || (data.bookedSlots && Object.keys(data.bookedSlots).length > 0);
-        const bookingCount = data.bookingCount || (data.bookedSlots ? Object.keys(data.bookedSlots).length : 0);
-
-        // Set correct capacity based on amenity type - explicit checks
-        let maxCapacity;
-        if (amenityType === 'HALL') {
-            maxCapacity = 1; // HALL: 1 per day
-        } else if (amenityType === 'BBQ') {
-            maxCapacity = 4; // BBQ: 4 per day
-        } else {
-            // Fallback - should not happen for day-based amenities
-            console.warn('Unknown day-based amenity type:', amenityType);
-            maxCapacity = 1;
-        }
+        container.innerHTML = `<h2>${amenityName} - ${date}</h2>`;
 
-        // Debug logging for day-based amenities
-        console.log('Day-based capacity:', {
-            amenityId,
-            amenityName: getAmenityName(amenityId),
-            amenityType,
-            maxCapacity,
-            bookingCount,
-            availableSlots: maxCapacity - bookingCount
-        });
+        const bookingCount = data.bookingCount || 0;
+        const isFullyBooked = bookingCount >= maxCapacity;
 
         const bookingCard = document.createElement('div');
         bookingCard.style.cssText = 'padding: 30px; border: 2px solid #ddd; border-radius: 8px; text-align: center; margin: 20px 0; background-color: #f9f9f9;';
 
-        if (isBooked) {
+        if (isFullyBooked) {
             bookingCard.innerHTML = `
                 <div style="color: #d32f2f; font-size: 20px; margin-bottom: 15px;">
                     <strong>❌ Already Booked</strong>
                 </div>
                 <div style="color: #666; font-size: 16px; margin-bottom: 10px;">
-                    This ${amenityType === 'HALL' ? 'Community Hall' : 'BBQ Area'} is already booked for this date.
+                    ${amenityName} is already booked for this date.
                 </div>
                 <div style="color: #666; font-size: 14px;">
                     Bookings: ${bookingCount}/${maxCapacity}
@@ -333,12 +384,12 @@ function displayTimeSlots(data, amenityId, date) {
                     <strong>✅ Available for Booking</strong>
                 </div>
                 <div style="color: #666; font-size: 16px; margin-bottom: 10px;">
-                    ${amenityType === 'HALL' ? 'Book the Community Hall' : amenityType === 'BBQ' ? 'Book the BBQ Area' : 'Book this amenity'} for the entire day
+                    Book ${amenityName} for the entire day
                 </div>
                 <div style="color: #4caf50; font-size: 14px; margin-bottom: 20px; font-weight: bold;">
                     Available Slots: ${availableSlots}/${maxCapacity}
                 </div>
-                <button class="slot-book-btn" onclick="bookSlot(${amenityId}, '${date}', '09:00')" style="padding: 12px 40px; font-size: 18px; font-weight: bold; background-color: #4caf50; color: white; border: none; border-radius: 5px; cursor: pointer;">
+                <button class="slot-book-btn" onclick="bookSlot(${amenityId}, '${date}', null)" style="padding: 12px 40px; font-size: 18px; font-weight: bold; background-color: #4caf50; color: white; border: none; border-radius: 5px; cursor: pointer;">
                     Book for This Day
                 </button>
             `;
@@ -346,45 +397,13 @@ function displayTimeSlots(data, amenityId, date) {
 
         container.appendChild(bookingCard);
     } else {
-        // For slot-based amenities, show hourly slots with booking counts and available slots
-        container.innerHTML = `<h2>Time Slots for ${getAmenityName(amenityId)} on ${date}</h2>`;
+        // For slot-based amenities, show the amenity's slots with booking counts and available slots
+        container.innerHTML = `<h2>Time Slots for ${amenityName} on ${date}</h2>`;
 
         const slotsGrid = document.createElement('div');
         slotsGrid.className = 'slots-grid';
 
-        // Get capacity limits based on amenity type - explicit checks
-        const getCapacity = () => {
-            // Check TENNIS first to ensure it gets priority
-            if (amenityType === 'TENNIS') {
-                return 2;  // Tennis Court: max 2
-            }
-            if (amenityType === 'GYM') {
-                return 10;  // Gym: max 10
-            }
-            if (amenityType === 'SWIMMING') {
-                return 10;  // Swimming Pool: max 10
-            }
-            if (amenityType === 'PARKING') {
-                return 10;  // Parking: max 10
-            }
-            // Default fallback - should not happen for known amenities
-            console.warn('Unknown slot-based amenity type:', amenityType);
-            return 10;
-        };
-        const maxCapacity = getCapacity();
-
-        // Debug logging for capacity
-        console.log('Slot-based capacity check:', {
-            amenityId,
-            amenityName: getAmenityName(amenityId),
-            amenityType,
-            maxCapacity,
-            detectedCorrectly: amenityType === 'TENNIS' ? maxCapacity === 2 : true
-        });
-
-        // Generate hourly slots from 09:00 to 17:00
-        for (let hour = 9; hour < 17; hour++) {
-            const slotTime = `${hour.toString().padStart(2, '0')}:00`;
+        (data.slots || []).forEach(slotTime => {
             const slot = document.createElement('div');
             slot.className = 'slot';
 
@@ -440,7 +459,7 @@ function displayTimeSlots(data, amenityId, date) {
             }
 
             slotsGrid.appendChild(slot);
-        }
+        });
 
         container.appendChild(slotsGrid);
     }
@@ -452,25 +471,9 @@ async function bookSlot(amenityId, date, time) {
         return;
     }
 
-    // Determine amenity type from amenity name
-    const amenityType = getAmenityType(amenityId);
-
-    // For day-based amenities (HALL, BBQ), timeSlot should be null
-    const isDayBased = amenityType === 'HALL' || amenityType === 'BBQ';
-
-    let slotStart, slotEnd, timeSlot;
-
-    if (isDayBased) {
-        // For day-based bookings, use full day slots (9 AM to 10 PM for HALL, 9 AM to 6 PM for BBQ)
-        slotStart = new Date(`${date}T09:00:00`);
-        slotEnd = new Date(`${date}T${amenityType === 'HALL' ? '22:00:00' : '18:00:00'}`);
-        timeSlot = null;
-    } else {
-        // For slot-based bookings, use the selected time
-        slotStart = new Date(`${date}T${time}:00`);
-        slotEnd = new Date(slotStart.getTime() + 60 * 60 * 1000); // Add 1 hour
-        timeSlot = formatTimeSlot(slotStart.toISOString(), slotEnd.toISOString());
-    }
+    // Day-based bookings have no time slot; booking-service fills in the hours from the amenity rules
+    const amenity = getAmenity(amenityId);
+    const timeSlot = time && amenity ? `${time}-${addMinutes(time, amenity.slotMinutes)}` : null;
 
     try {
         const response = await fetch(`${BOOKING_API}/bookings`, {
@@ -481,17 +484,14 @@ async function bookSlot(amenityId, date, time) {
             },
             body: JSON.stringify({
                 amenityId: amenityId,
-                amenityType: amenityType,
                 bookingDate: date,
-                timeSlot: timeSlot,
-                slotStart: slotStart.toISOString(),
-                slotEnd: slotEnd.toISOString()
+                timeSlot: timeSlot
             })
         });
 
         if (response.ok) {
             alert('Booking created successfully!');
-            loadTimeSlots();
+            reloadTimeSlotsIfNotStreaming();
             loadUserBookings();
         } else {
             const errorData = await response.json().catch(() => ({ error: 'Unknown error' }));
@@ -499,7 +499,10 @@ async function bookSlot(amenityId, date, time) {
 
             if (response.status === 409) {
                 alert(errorMessage);
-                loadTimeSlots();
+                reloadTimeSlotsIfNotStreaming();
+            } else if (response.status === 429) {
+                const retryAfter = response.headers.get('Retry-After');
+                alert(retryAfter ? `${errorMessage} (retry in ${retryAfter}s)` : errorMessage);
             } else if (response.status === 400) {
                 alert(`Invalid request: ${errorMessage}`);
             } else {
@@ -542,13 +545,12 @@ function displayBookings() {
         const slotEnd = new Date(booking.slotEnd);
         const amenityName = getAmenityName(booking.amenityId);
         const bookingId = booking.id || 'N/A';
-        const amenityType = booking.amenityType || getAmenityType(booking.amenityId);
         const timeSlot = booking.timeSlot || null;
         const bookingDate = booking.bookingDate || slotStart.toLocaleDateString();
 
-        // Format display based on amenity type
+        // Day-based bookings are the ones without a time slot
         let timeDisplay = '';
-        if (amenityType === 'HALL' || amenityType === 'BBQ') {
+        if (!timeSlot) {
             // Day-based: show date only
             timeDisplay = `<strong>Date:</strong> ${bookingDate}<br>`;
         } else {
@@ -595,7 +597,7 @@ async function cancelBooking(bookingId) {
 
         if (response.ok) {
             alert('Booking cancelled successfully!');
-            loadTimeSlots();
+            reloadTimeSlotsIfNotStreaming();
             loadUserBookings();
         } else {
             alert('Failed to cancel booking');
@@ -617,55 +619,21 @@ function getAmenityName(amenityId) {
     return amenity.name;
 }
 
-function getAmenityType(amenityId) {
+function getAmenity(amenityId) {
     // Convert to number for comparison (amenityId might come as string from HTML)
     const id = typeof amenityId === 'string' ? parseInt(amenityId, 10) : amenityId;
     const amenity = amenities.find(a => a.id === id);
     if (!amenity) {
         console.warn('Amenity not found for ID:', amenityId, '(parsed as:', id, ')', 'Available amenities:', amenities);
-        return 'GYM'; // Default fallback
-    }
-
-    const name = amenity.name.toUpperCase();
-    console.log('getAmenityType check:', { amenityId, parsedId: id, amenityName: amenity.name, upperName: name });
-
-    // Check for BBQ first (before HALL) to avoid conflicts
-    // "BBQ Area" should match BBQ, not HALL
-    if (name.includes('BBQ') || name.includes('BARBECUE')) {
-        console.log('  -> Detected as BBQ');
-        return 'BBQ';
     }
-    // Check for HALL (includes PARTY HALL)
-    if (name.includes('HALL') || name.includes('PARTY')) {
-        console.log('  -> Detected as HALL');
-        return 'HALL';
-    }
-    // Check for TENNIS before GYM (Tennis Court should not match GYM)
-    if (name.includes('TENNIS')) {
-        console.log('  -> Detected as TENNIS');
-        return 'TENNIS';
-    }
-    if (name.includes('GYM')) {
-        console.log('  -> Detected as GYM');
-        return 'GYM';
-    }
-    if (name.includes('SWIMMING') || name.includes('POOL')) {
-        console.log('  -> Detected as SWIMMING');
-        return 'SWIMMING';
-    }
-    if (name.includes('PARKING') || name.includes('CAR')) {
-        console.log('  -> Detected as PARKING');
-        return 'PARKING';
-    }
-    console.warn('  -> No match found, defaulting to GYM');
-    return 'GYM'; // Default fallback
+    return amenity;
 }
 
-function formatTimeSlot(startTime, endTime) {
-    // Format as "HH:mm-HH:mm"
-    const start = startTime.split('T')[1].substring(0, 5); // Extract HH:mm
-    const end = endTime.split('T')[1].substring(0, 5); // Extract HH:mm
-    return `${start}-${end}`;
+function addMinutes(time, minutes) {
+    // "HH:mm" plus minutes, as "HH:mm"
+    const [hours, mins] = time.split(':').map(Number);
+    const total = hours * 60 + mins + minutes;
+    return `${String(Math.floor(total / 60)).padStart(2, '0')}:${String(total % 60).padStart(2, '0')}`;
 }
 
 function showError(elementId, message) {
@@ -690,6 +658,11 @@ function showAdminDashboard() {
 }
 
 async function loadAllBookings() {
+    await loadAdminBookingsPage(false);
+}
+
+// Loads one page from the paginated search; append=true continues from adminNextCursor
+async function loadAdminBookingsPage(append) {
     if (!sessionToken) return;
 
     // Double check admin role
@@ -699,13 +672,24 @@ async function loadAllBookings() {
         return;
     }
 
+    const params = new URLSearchParams({ limit: 50 });
+    const amenityId = document.getElementById('admin-amenity-filter').value;
+    if (amenityId) {
+        params.set('amenityId', amenityId);
+    }
+    if (append && adminNextCursor) {
+        params.set('cursor', adminNextCursor);
+    }
+
     try {
-        const response = await fetch(`${BOOKING_API}/admin/bookings`, {
+        const response = await fetch(`${BOOKING_API}/admin/bookings/search?${params}`, {
             headers: { 'X-SESSION-TOKEN': sessionToken }
         });
 
         if (response.ok) {
-            adminBookings = await response.json();
+            const page = await response.json();
+            adminBookings = append ? adminBookings.concat(page.items) : page.items;
+            adminNextCursor = page.nextCursor;
             displayAdminBookings();
         } else if (response.status === 403) {
             alert('Access denied. Admin privileges required.');
@@ -763,7 +747,13 @@ function displayAdminBookings() {
     }).join('')}
             </tbody>
         </table>
+        ${adminNextCursor ? '<button id="admin-load-more-btn" class="btn">Load more</button>' : ''}
     `;
+
+    if (adminNextCursor) {
+        document.getElementById('admin-load-more-btn')
+            .addEventListener('click', () => loadAdminBookingsPage(true));
+    }
 }
 
 async function loadAdminStats() {
@@ -796,17 +786,18 @@ async function loadAdminStats() {
 
 function displayAdminStats(stats) {
     const container = document.getElementById('admin-stats');
+    const byType = Object.entries(stats.bookingsByAmenityType || {})
+        .map(([type, count]) => `<li>${type}: ${count}</li>`)
+        .join('');
     container.innerHTML = `
         <div class="stats-card">
             <h3>Booking Statistics</h3>
             <p><strong>Total Bookings:</strong> ${stats.totalBookings}</p>
+            <p><strong>Bookings Today:</strong> ${stats.bookingsToday}</p>
+            <p><strong>Active Users:</strong> ${stats.activeUsers}</p>
+            ${byType ? `<p><strong>By Amenity Type:</strong></p><ul>${byType}</ul>` : ''}
         </div>
     `;
-
-    if (stats.bookings && stats.bookings.length > 0) {
-        adminBookings = stats.bookings;
-        displayAdminBookings();
-    }
 }
 
 function filterAdminBookings() {
@@ -816,40 +807,7 @@ function filterAdminBookings() {
         return;
     }
 
-    const amenityId = document.getElementById('admin-amenity-filter').value;
-
-    if (!amenityId) {
-        loadAllBookings();
-        return;
-    }
-
-    if (!sessionToken) return;
-
-    try {
-        fetch(`${BOOKING_API}/admin/bookings/amenity/${amenityId}`, {
-            headers: { 'X-SESSION-TOKEN': sessionToken }
-        })
-            .then(response => {
-                if (response.ok) {
-                    return response.json();
-                } else if (response.status === 403) {
-                    alert('Access denied. Admin privileges required.');
-                    return [];
-                } else {
-                    alert('Failed to load bookings');
-                    return [];
-                }
-            })
-            .then(bookings => {
-                adminBookings = bookings;
-                displayAdminBookings();
-            })
-            .catch(error => {
-                console.error('Failed to filter bookings:', error);
-                alert('Failed to filter bookings');
-            });
-    } catch (error) {
-        console.error('Failed to filter bookings:', error);
-    }
+    adminNextCursor = null;
+    loadAdminBookingsPage(false);
 }
 
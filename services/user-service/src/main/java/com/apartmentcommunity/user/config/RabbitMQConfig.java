@@ -0,0 +1,27 @@
+package com.apartmentcommunity.user.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+    public static final String SESSION_EXCHANGE_NAME = "session_events";
+
+    @Bean
+    public TopicExchange sessionExchange() {
+        return new TopicExchange(SESSION_EXCHANGE_NAME, true, false);
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(new Jackson2JsonMessageConverter());
+        // spring.rabbit.template timers for publish latency
+        template.setObservationEnabled(true);
+        return template;
+    }
+}
@@ -2,8 +2,9 @@ package com.apartmentcommunity.user.controller;
 
 import com.apartmentcommunity.user.dto.LoginRequest;
 import com.apartmentcommunity.user.dto.RegisterRequest;
-import com.apartmentcommunity.user.model.Session;
+import com.apartmentcommunity.user.model.SessionRevocation;
 import com.apartmentcommunity.user.model.User;
+import com.apartmentcommunity.user.service.ActiveSession;
 import com.apartmentcommunity.user.service.SessionService;
 import com.apartmentcommunity.user.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,13 +12,22 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
 public class UserController {
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
     private final UserService userService;
     private final SessionService sessionService;
 
@@ -37,7 +47,7 @@ public class UserController {
                 request.getFlatNo(),
                 request.getContactNumber()
             );
-            String token = sessionService.createSession(user.getId());
+            String token = sessionService.createSession(user);
             
             Map<String, String> response = new HashMap<>();
             response.put("token", token);
@@ -58,7 +68,7 @@ public class UserController {
         }
         
         User user = userOpt.get();
-        String token = sessionService.createSession(user.getId());
+        String token = sessionService.createSession(user);
         
         Map<String, String> response = new HashMap<>();
         response.put("token", token);
@@ -69,25 +79,61 @@ public class UserController {
 
     @GetMapping("/session/{token}")
     public ResponseEntity<Map<String, Object>> getSession(@PathVariable String token) {
-        Optional<Session> sessionOpt = sessionService.getSessionByToken(token);
+        Optional<ActiveSession> sessionOpt = sessionService.resolve(token);
         if (sessionOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        
-        Session session = sessionOpt.get();
-        Optional<User> userOpt = userService.findById(session.getUserId());
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
-        
-        User user = userOpt.get();
+
+        ActiveSession session = sessionOpt.get();
         Map<String, Object> response = new HashMap<>();
-        response.put("userId", user.getId());
-        response.put("username", user.getUsername());
-        response.put("role", user.getRole() != null ? user.getRole() : "USER");
+        response.put("userId", session.getUserId());
+        response.put("username", session.getUsername());
+        response.put("role", session.getRole());
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Keeps an active session alive: returns a token valid for another idle timeout, which
+     * replaces the one presented.
+     */
+    @PostMapping("/session/{token}/refresh")
+    public ResponseEntity<Map<String, String>> refreshSession(@PathVariable String token) {
+        Optional<String> refreshed = sessionService.refresh(token);
+        if (refreshed.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Map<String, String> response = new HashMap<>();
+        response.put("token", refreshed.get());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Revocations whose tokens have not expired yet, for services that verify signed tokens
+     * locally and need to catch up on revocations broadcast while they were down.
+     */
+    @GetMapping("/session/revocations")
+    public ResponseEntity<List<Map<String, Object>>> getRevocations() {
+        List<Map<String, Object>> response = new ArrayList<>();
+        for (SessionRevocation revocation : sessionService.getActiveRevocations()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("jti", revocation.getJti());
+            entry.put("userId", revocation.getUserId());
+            long revokedAtMillis = revocation.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            entry.put("revokedAtMillis", revokedAtMillis);
+            entry.put("revokedAt", revokedAtMillis / 1000);
+            entry.put("expiresAt", revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+            response.add(entry);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/session/{token}")
+    public ResponseEntity<Void> logout(@PathVariable String token) {
+        sessionService.deleteSession(token);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/users/{id}")
     public ResponseEntity<Map<String, Object>> getUser(@PathVariable Long id) {
         Optional<User> userOpt = userService.findById(id);
@@ -95,7 +141,62 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
         
-        User user = userOpt.get();
+        return ResponseEntity.ok(toUserResponse(userOpt.get()));
+    }
+
+    /**
+     * Changes a user's role (admin only) and revokes the user's sessions so the new role
+     * takes effect immediately.
+     */
+    @PutMapping("/users/{id}/role")
+    public ResponseEntity<Map<String, Object>> updateRole(
+            @RequestHeader(value = "X-SESSION-TOKEN", required = false) String sessionToken,
+            @PathVariable Long id,
+            @RequestBody Map<String, String> request) {
+        if (sessionToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<ActiveSession> callerOpt = sessionService.resolve(sessionToken);
+        if (callerOpt.isEmpty() || !callerOpt.get().isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String role = request.get("role");
+        if (role == null || !ROLES.contains(role)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        try {
+            User user = userService.updateRole(id, role);
+            sessionService.revokeUserSessions(id);
+            return ResponseEntity.ok(toUserResponse(user));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Resolves many users in a single query. Unknown ids are omitted from the result.
+     */
+    @PostMapping("/users/batch")
+    public ResponseEntity<List<Map<String, Object>>> getUsers(@RequestBody List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        uniqueIds.remove(null);
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        if (uniqueIds.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        List<Map<String, Object>> response = userService.findAllByIds(uniqueIds).stream()
+                .map(this::toUserResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(response);
+    }
+
+    private Map<String, Object> toUserResponse(User user) {
         Map<String, Object> response = new HashMap<>();
         response.put("id", user.getId());
         response.put("username", user.getUsername());
@@ -103,7 +204,6 @@ public class UserController {
         response.put("flatNo", user.getFlatNo());
         response.put("contactNumber", user.getContactNumber());
         response.put("role", user.getRole() != null ? user.getRole() : "USER");
-        return ResponseEntity.ok(response);
+        return response;
     }
 }
-
@@ -0,0 +1,27 @@
+package com.apartmentcommunity.user.event;
+
+public class SessionDeletedEvent {
+    private final String token;
+    private final String jti;
+    private final Long expiresAt;
+
+    public SessionDeletedEvent(String token, String jti, Long expiresAt) {
+        this.token = token;
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    // Null for legacy opaque tokens
+    public String getJti() {
+        return jti;
+    }
+
+    // Epoch seconds; null for legacy opaque tokens
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+}
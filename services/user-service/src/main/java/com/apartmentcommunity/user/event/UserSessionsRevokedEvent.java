@@ -0,0 +1,29 @@
+package com.apartmentcommunity.user.event;
+
+/**
+ * Every session of the user issued up to revokedAtMillis (epoch milliseconds) is no longer
+ * valid, e.g. because the user's role changed. expiresAt is in epoch seconds.
+ */
+public class UserSessionsRevokedEvent {
+    private final Long userId;
+    private final long revokedAtMillis;
+    private final long expiresAt;
+
+    public UserSessionsRevokedEvent(Long userId, long revokedAtMillis, long expiresAt) {
+        this.userId = userId;
+        this.revokedAtMillis = revokedAtMillis;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getRevokedAtMillis() {
+        return revokedAtMillis;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
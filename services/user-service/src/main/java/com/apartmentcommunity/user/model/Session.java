@@ -19,6 +19,9 @@ public class Session {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -27,9 +30,10 @@ public class Session {
     // Constructors
     public Session() {}
 
-    public Session(String token, Long userId) {
+    public Session(String token, Long userId, LocalDateTime expiresAt) {
         this.token = token;
         this.userId = userId;
+        this.expiresAt = expiresAt;
     }
 
     // Getters and Setters
@@ -64,5 +68,12 @@ public class Session {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.apartmentcommunity.user.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A revoked signed session (jti set) or all sessions of a user issued before revokedAt
+ * (userId set, jti null). Kept until every token it covers has expired, so services that
+ * start up later can load the revocations they missed.
+ */
+@Entity
+@Table(name = "session_revocations")
+public class SessionRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "jti", length = 64)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public SessionRevocation() {}
+
+    public SessionRevocation(String jti, Long userId, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.userId = userId;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(LocalDateTime revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
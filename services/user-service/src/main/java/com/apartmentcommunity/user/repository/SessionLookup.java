@@ -0,0 +1,18 @@
+package com.apartmentcommunity.user.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A session joined with the user it belongs to.
+ */
+public interface SessionLookup {
+    Long getSessionId();
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getRole();
+
+    LocalDateTime getExpiresAt();
+}
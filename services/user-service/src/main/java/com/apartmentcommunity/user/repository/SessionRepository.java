@@ -2,13 +2,36 @@ package com.apartmentcommunity.user.repository;
 
 import com.apartmentcommunity.user.model.Session;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
     Optional<Session> findByToken(String token);
     void deleteByToken(String token);
-}
+    void deleteByUserId(Long userId);
+
+    // Session and user in one round trip
+    @Query("SELECT s.id AS sessionId, s.userId AS userId, u.username AS username, u.role AS role, " +
+           "s.expiresAt AS expiresAt FROM Session s JOIN User u ON u.id = s.userId " +
+           "WHERE s.token = :token AND s.expiresAt > :now")
+    Optional<SessionLookup> findActiveByToken(@Param("token") String token, @Param("now") LocalDateTime now);
 
+    @Transactional
+    @Modifying
+    @Query("UPDATE Session s SET s.expiresAt = :expiresAt WHERE s.id = :id")
+    int extendExpiry(@Param("id") Long id, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // One bounded chunk per call so the purge never holds long locks or builds a huge transaction
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM sessions WHERE id IN " +
+            "(SELECT id FROM sessions WHERE expires_at <= :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
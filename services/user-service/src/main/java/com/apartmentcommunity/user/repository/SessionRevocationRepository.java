@@ -0,0 +1,20 @@
+package com.apartmentcommunity.user.repository;
+
+import com.apartmentcommunity.user.model.SessionRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SessionRevocationRepository extends JpaRepository<SessionRevocation, Long> {
+    List<SessionRevocation> findByExpiresAtAfter(LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SessionRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
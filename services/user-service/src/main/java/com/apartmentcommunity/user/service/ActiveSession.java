@@ -0,0 +1,57 @@
+package com.apartmentcommunity.user.service;
+
+import com.apartmentcommunity.user.repository.SessionLookup;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resolved, unexpired session together with the user fields callers need.
+ */
+public final class ActiveSession {
+    private final Long sessionId;
+    private final Long userId;
+    private final String username;
+    private final String role;
+    private final LocalDateTime expiresAt;
+
+    public ActiveSession(Long sessionId, Long userId, String username, String role, LocalDateTime expiresAt) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.username = username;
+        this.role = role != null ? role : "USER";
+        this.expiresAt = expiresAt;
+    }
+
+    static ActiveSession of(SessionLookup lookup) {
+        return new ActiveSession(lookup.getSessionId(), lookup.getUserId(), lookup.getUsername(),
+                lookup.getRole(), lookup.getExpiresAt());
+    }
+
+    ActiveSession withExpiresAt(LocalDateTime newExpiresAt) {
+        return new ActiveSession(sessionId, userId, username, role, newExpiresAt);
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+}
@@ -0,0 +1,68 @@
+package com.apartmentcommunity.user.service;
+
+import com.apartmentcommunity.user.config.RabbitMQConfig;
+import com.apartmentcommunity.user.event.SessionDeletedEvent;
+import com.apartmentcommunity.user.event.UserSessionsRevokedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Broadcasts session lifecycle changes so that services caching session lookups or
+ * verifying signed tokens locally (booking-service) stop accepting a token as soon as
+ * it is revoked.
+ */
+@Service
+public class SessionEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(SessionEventPublisher.class);
+    private static final String SESSION_DELETED_ROUTING_KEY = "session.deleted";
+    private static final String USER_SESSIONS_REVOKED_ROUTING_KEY = "session.user-revoked";
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    public SessionEventPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    // Published only after commit so a consumer never re-reads a session that is still visible
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSessionDeleted(SessionDeletedEvent sessionDeletedEvent) {
+        try {
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", "SESSION_DELETED");
+            event.put("token", sessionDeletedEvent.getToken());
+            event.put("jti", sessionDeletedEvent.getJti());
+            event.put("expiresAt", sessionDeletedEvent.getExpiresAt());
+
+            rabbitTemplate.convertAndSend(RabbitMQConfig.SESSION_EXCHANGE_NAME, SESSION_DELETED_ROUTING_KEY, event);
+        } catch (Exception e) {
+            // Consumers reload revocations on startup and fall back to their cache TTL otherwise
+            logger.warn("Failed to publish session deleted event: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserSessionsRevoked(UserSessionsRevokedEvent revokedEvent) {
+        try {
+            Map<String, Object> event = new HashMap<>();
+            event.put("eventType", "USER_SESSIONS_REVOKED");
+            event.put("userId", revokedEvent.getUserId());
+            event.put("revokedAtMillis", revokedEvent.getRevokedAtMillis());
+            // Seconds, for consumers that predate revokedAtMillis
+            event.put("revokedAt", revokedEvent.getRevokedAtMillis() / 1000);
+            event.put("expiresAt", revokedEvent.getExpiresAt());
+
+            rabbitTemplate.convertAndSend(RabbitMQConfig.SESSION_EXCHANGE_NAME, USER_SESSIONS_REVOKED_ROUTING_KEY, event);
+        } catch (Exception e) {
+            logger.warn("Failed to publish user sessions revoked event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.apartmentcommunity.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process index of recently resolved sessions, keyed by session token (the jti for
+ * signed tokens), in front of the sessions table.
+ *
+ * An entry is served until the session expires or {@code session.index.ttl-seconds} pass,
+ * whichever comes first; the second bound limits how long a logout on another user-service
+ * replica can go unnoticed here. Local logouts and revocations remove entries immediately.
+ */
+@Service
+public class SessionIndex {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public SessionIndex(@Value("${session.index.ttl-seconds:60}") long ttlSeconds,
+                        @Value("${session.index.max-size:50000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    public ActiveSession get(String key, LocalDateTime now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.indexedUntil <= System.currentTimeMillis() || !entry.session.getExpiresAt().isAfter(now)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.session;
+    }
+
+    public void put(String key, ActiveSession session) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(key, new Entry(session, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public void invalidateUser(Long userId) {
+        entries.values().removeIf(entry -> userId.equals(entry.session.getUserId()));
+    }
+
+    // Drops the entries closest to leaving the index until it is back under 90% of its maximum size
+    private synchronized void evict() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+        snapshot.sort(Comparator.comparingLong(e -> e.getValue().indexedUntil));
+        int target = (int) (maxSize * 0.9);
+        for (int i = 0; i < snapshot.size() && entries.size() > target; i++) {
+            entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+        }
+    }
+
+    private static final class Entry {
+        private final ActiveSession session;
+        private final long indexedUntil;
+
+        private Entry(ActiveSession session, long indexedUntil) {
+            this.session = session;
+            this.indexedUntil = indexedUntil;
+        }
+    }
+}
@@ -1,35 +1,220 @@
 package com.apartmentcommunity.user.service;
 
+import com.apartmentcommunity.user.event.SessionDeletedEvent;
+import com.apartmentcommunity.user.event.UserSessionsRevokedEvent;
 import com.apartmentcommunity.user.model.Session;
+import com.apartmentcommunity.user.model.SessionRevocation;
+import com.apartmentcommunity.user.model.User;
 import com.apartmentcommunity.user.repository.SessionRepository;
+import com.apartmentcommunity.user.repository.SessionRevocationRepository;
+import com.apartmentcommunity.user.repository.SessionLookup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Session lifecycle. Sessions expire after {@code session.idle-timeout-seconds} without use.
+ * Resolving a token through user-service ({@link #resolve}, {@link #refresh}) pushes the
+ * expiry forward, written back at most once per {@code session.touch-interval-seconds}.
+ *
+ * Signed tokens are verified elsewhere without calling user-service, so their {@code exp}
+ * is the session's expiry at the time they were issued; a client keeps a session alive by
+ * refreshing its token, and a token never outlives its session row. Expired rows are purged
+ * in chunks in the background.
+ */
 @Service
 public class SessionService {
+    private static final Logger logger = LoggerFactory.getLogger(SessionService.class);
+
     private final SessionRepository sessionRepository;
+    private final SessionRevocationRepository revocationRepository;
+    private final SessionTokenSigner tokenSigner;
+    private final SessionIndex sessionIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long idleTimeoutSeconds;
+    private final long touchIntervalSeconds;
+    private final int purgeBatchSize;
 
     @Autowired
-    public SessionService(SessionRepository sessionRepository) {
+    public SessionService(SessionRepository sessionRepository,
+                          SessionRevocationRepository revocationRepository,
+                          SessionTokenSigner tokenSigner,
+                          SessionIndex sessionIndex,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${session.idle-timeout-seconds:7200}") long idleTimeoutSeconds,
+                          @Value("${session.touch-interval-seconds:300}") long touchIntervalSeconds,
+                          @Value("${session.purge.batch-size:5000}") int purgeBatchSize) {
         this.sessionRepository = sessionRepository;
+        this.revocationRepository = revocationRepository;
+        this.tokenSigner = tokenSigner;
+        this.sessionIndex = sessionIndex;
+        this.eventPublisher = eventPublisher;
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+        this.touchIntervalSeconds = touchIntervalSeconds;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Creates a session and returns its signed token. The session row is keyed by the token's jti.
+     */
+    public String createSession(User user) {
+        String jti = UUID.randomUUID().toString();
+        String role = user.getRole() != null ? user.getRole() : "USER";
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(idleTimeoutSeconds);
+        Session session = sessionRepository.save(new Session(jti, user.getId(), expiresAt));
+        sessionIndex.put(jti, new ActiveSession(session.getId(), user.getId(), user.getUsername(), role, expiresAt));
+
+        return tokenSigner.issue(new SessionTokenSigner.Claims(jti, user.getId(), user.getUsername(),
+                role, System.currentTimeMillis(), toEpochSecond(expiresAt)));
     }
 
-    public String createSession(Long userId) {
-        String token = UUID.randomUUID().toString();
-        Session session = new Session(token, userId);
-        sessionRepository.save(session);
-        return token;
+    /**
+     * Resolves a token to its unexpired session and user in at most one query, and slides
+     * the session's expiry forward. Signed tokens are looked up by their jti.
+     */
+    public Optional<ActiveSession> resolve(String token) {
+        String key = sessionKey(token);
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ActiveSession session = sessionIndex.get(key, now);
+        if (session == null) {
+            Optional<SessionLookup> lookup = sessionRepository.findActiveByToken(key, now);
+            if (lookup.isEmpty()) {
+                return Optional.empty();
+            }
+            session = ActiveSession.of(lookup.get());
+        }
+
+        LocalDateTime extended = now.plusSeconds(idleTimeoutSeconds);
+        if (Duration.between(session.getExpiresAt(), extended).getSeconds() >= touchIntervalSeconds) {
+            sessionRepository.extendExpiry(session.getSessionId(), extended);
+            session = session.withExpiresAt(extended);
+        }
+        sessionIndex.put(key, session);
+        return Optional.of(session);
     }
 
-    public Optional<Session> getSessionByToken(String token) {
-        return sessionRepository.findByToken(token);
+    /**
+     * Slides the session's expiry forward and returns a token valid until the new expiry.
+     * Signed tokens are reissued for the same session, with the user's current role; legacy
+     * opaque tokens are returned as they are.
+     *
+     * @return empty if the token is invalid or its session has expired or been revoked
+     */
+    public Optional<String> refresh(String token) {
+        Optional<ActiveSession> sessionOpt = resolve(token);
+        if (sessionOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!SessionTokenSigner.isSigned(token)) {
+            return Optional.of(token);
+        }
+
+        ActiveSession session = sessionOpt.get();
+        String jti = sessionKey(token);
+        return Optional.of(tokenSigner.issue(new SessionTokenSigner.Claims(jti, session.getUserId(),
+                session.getUsername(), session.getRole(), System.currentTimeMillis(),
+                toEpochSecond(session.getExpiresAt()))));
     }
 
+    @Transactional
     public void deleteSession(String token) {
-        sessionRepository.deleteByToken(token);
+        if (!SessionTokenSigner.isSigned(token)) {
+            sessionIndex.invalidate(token);
+            sessionRepository.deleteByToken(token);
+            eventPublisher.publishEvent(new SessionDeletedEvent(token, null, null));
+            return;
+        }
+
+        Optional<SessionTokenSigner.Claims> claimsOpt = tokenSigner.decode(token);
+        if (claimsOpt.isEmpty()) {
+            return;
+        }
+        SessionTokenSigner.Claims claims = claimsOpt.get();
+        // Refreshed tokens of the session may expire later than the one presented, but none
+        // later than a full idle timeout from now
+        long expiresAt = Math.max(claims.getExpiresAt(), Instant.now().getEpochSecond() + idleTimeoutSeconds);
+        sessionIndex.invalidate(claims.getJti());
+        sessionRepository.deleteByToken(claims.getJti());
+        revocationRepository.save(new SessionRevocation(claims.getJti(), claims.getUserId(),
+                LocalDateTime.now(), toLocalDateTime(expiresAt)));
+        eventPublisher.publishEvent(new SessionDeletedEvent(token, claims.getJti(), expiresAt));
     }
-}
 
+    /**
+     * Invalidates every session the user currently holds, signed or not.
+     */
+    @Transactional
+    public void revokeUserSessions(Long userId) {
+        // Milliseconds, like token issue times, so a login right after this is not revoked with it
+        long revokedAtMillis = System.currentTimeMillis();
+        // No token issued before now expires later than this
+        long expiresAt = revokedAtMillis / 1000 + idleTimeoutSeconds;
+        sessionIndex.invalidateUser(userId);
+        sessionRepository.deleteByUserId(userId);
+        revocationRepository.save(new SessionRevocation(null, userId,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(revokedAtMillis), ZoneId.systemDefault()),
+                toLocalDateTime(expiresAt)));
+        eventPublisher.publishEvent(new UserSessionsRevokedEvent(userId, revokedAtMillis, expiresAt));
+    }
+
+    public List<SessionRevocation> getActiveRevocations() {
+        return revocationRepository.findByExpiresAtAfter(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${session.revocation.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpiredRevocations() {
+        revocationRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    /**
+     * Deletes expired sessions one chunk (and one short transaction) at a time. Their signed
+     * tokens have expired by then too, so nothing needs to be revoked.
+     */
+    @Scheduled(fixedDelayString = "${session.purge.interval-ms:600000}")
+    public void purgeExpiredSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = sessionRepository.deleteExpiredChunk(now, purgeBatchSize);
+            purged += deleted;
+        } while (deleted == purgeBatchSize);
+        if (purged > 0) {
+            logger.info("Purged {} expired sessions", purged);
+        }
+    }
+
+    // Signed tokens are stored under their jti; null if the signature or expiry check fails
+    private String sessionKey(String token) {
+        if (!SessionTokenSigner.isSigned(token)) {
+            return token;
+        }
+        return tokenSigner.verify(token).map(SessionTokenSigner.Claims::getJti).orElse(null);
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochSeconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), ZoneId.systemDefault());
+    }
+}
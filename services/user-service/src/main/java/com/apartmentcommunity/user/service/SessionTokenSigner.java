@@ -0,0 +1,164 @@
+package com.apartmentcommunity.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Issues and checks self-validating session tokens of the form
+ * {@code v1.<base64url(json claims)>.<base64url(HMAC-SHA256)>}.
+ *
+ * The claims carry everything other services need to authorize a request (user id, username,
+ * role, expiry), so they can verify a token with the shared secret instead of calling
+ * user-service. The jti claim identifies the session row and is what revocations refer to.
+ */
+@Component
+public class SessionTokenSigner {
+    public static final String VERSION_PREFIX = "v1.";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SessionTokenSigner(@Value("${session.token.secret}") String secret, ObjectMapper objectMapper) {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("session.token.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.key = new SecretKeySpec(secretBytes, HMAC_ALGORITHM);
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean isSigned(String token) {
+        return token != null && token.startsWith(VERSION_PREFIX);
+    }
+
+    public String issue(Claims claims) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jti", claims.getJti());
+        body.put("sub", claims.getUserId());
+        body.put("usr", claims.getUsername());
+        body.put("role", claims.getRole());
+        body.put("iat", claims.getIssuedAtMillis() / 1000);
+        body.put("iat_ms", claims.getIssuedAtMillis());
+        body.put("exp", claims.getExpiresAt());
+        try {
+            String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(body));
+            String signingInput = VERSION_PREFIX + payload;
+            return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(signingInput));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to issue session token", e);
+        }
+    }
+
+    /**
+     * Checks the signature only; the token may be expired.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<Claims> decode(String token) {
+        if (!isSigned(token)) {
+            return Optional.empty();
+        }
+        int separator = token.lastIndexOf('.');
+        if (separator <= VERSION_PREFIX.length()) {
+            return Optional.empty();
+        }
+        try {
+            String signingInput = token.substring(0, separator);
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(signingInput), signature)) {
+                return Optional.empty();
+            }
+            Map<String, Object> body = objectMapper.readValue(
+                    Base64.getUrlDecoder().decode(signingInput.substring(VERSION_PREFIX.length())), Map.class);
+            return Optional.of(new Claims(
+                    (String) body.get("jti"),
+                    ((Number) body.get("sub")).longValue(),
+                    (String) body.get("usr"),
+                    (String) body.get("role"),
+                    issuedAtMillis(body),
+                    ((Number) body.get("exp")).longValue()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks signature and expiry.
+     */
+    public Optional<Claims> verify(String token) {
+        long now = System.currentTimeMillis() / 1000;
+        return decode(token).filter(claims -> claims.getExpiresAt() > now);
+    }
+
+    // Tokens issued before iat_ms existed count from the start of their second, so revocations in that second cover them
+    private static long issuedAtMillis(Map<String, Object> body) {
+        Object millis = body.get("iat_ms");
+        return millis != null ? ((Number) millis).longValue() : ((Number) body.get("iat")).longValue() * 1000;
+    }
+
+    private byte[] sign(String signingInput) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(key);
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Token claims. The expiry is in epoch seconds; the issue time is in epoch milliseconds,
+     * so that a token issued just after a user-wide revocation is not mistaken for one it covers.
+     */
+    public static class Claims {
+        private final String jti;
+        private final Long userId;
+        private final String username;
+        private final String role;
+        private final long issuedAtMillis;
+        private final long expiresAt;
+
+        public Claims(String jti, Long userId, String username, String role, long issuedAtMillis, long expiresAt) {
+            this.jti = jti;
+            this.userId = userId;
+            this.username = username;
+            this.role = role;
+            this.issuedAtMillis = issuedAtMillis;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getJti() {
+            return jti;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public long getIssuedAtMillis() {
+            return issuedAtMillis;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
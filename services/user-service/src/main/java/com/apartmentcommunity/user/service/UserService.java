@@ -4,7 +4,10 @@ import com.apartmentcommunity.user.model.User;
 import com.apartmentcommunity.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -45,5 +48,21 @@ public class UserService {
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
+
+    /**
+     * Changes the user's role. Existing signed tokens still carry the old role, so callers
+     * must revoke the user's sessions as well.
+     */
+    @Transactional
+    public User updateRole(Long userId, String role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    public List<User> findAllByIds(Collection<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
 }
 
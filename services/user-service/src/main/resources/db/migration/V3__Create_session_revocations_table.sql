@@ -0,0 +1,11 @@
+-- Revoked signed sessions, kept until the tokens they cover expire.
+-- jti revokes one session; user_id with a NULL jti revokes every token of that user issued before revoked_at.
+CREATE TABLE IF NOT EXISTS session_revocations (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(64),
+    user_id BIGINT,
+    revoked_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_session_revocations_expires_at ON session_revocations(expires_at);
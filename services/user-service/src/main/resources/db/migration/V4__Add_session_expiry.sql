@@ -0,0 +1,11 @@
+-- Sessions expire after a sliding idle window; expired rows are purged in batches.
+ALTER TABLE sessions ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+UPDATE sessions SET expires_at = created_at + INTERVAL '12 hours' WHERE expires_at IS NULL;
+
+ALTER TABLE sessions ALTER COLUMN expires_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_sessions_expires_at ON sessions(expires_at);
+
+-- The UNIQUE constraint on token already provides this index
+DROP INDEX IF EXISTS idx_sessions_token;